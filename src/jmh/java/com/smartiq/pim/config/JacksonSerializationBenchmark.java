@@ -0,0 +1,88 @@
+package com.smartiq.pim.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.Category;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of the JSON responses of the product and basket resources, with the modules of {@link JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({ "1", "20" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Product> products;
+
+    private Basket basket;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper =
+            Jackson2ObjectMapperBuilder
+                .json()
+                .modules(
+                    jacksonConfiguration.javaTimeModule(),
+                    jacksonConfiguration.jdk8TimeModule(),
+                    jacksonConfiguration.hibernate5Module(),
+                    jacksonConfiguration.problemModule(),
+                    jacksonConfiguration.constraintViolationProblemModule()
+                )
+                .build();
+
+        Category category = new Category().name("category");
+        category.setId(1L);
+        products = new ArrayList<>();
+        basket = new Basket().createDate(LocalDate.now()).status(BasketStatus.ACTIVE).totalCost(BigDecimal.ZERO);
+        basket.setId(1L);
+        for (long i = 0; i < size; i++) {
+            Product product = new Product().name("product " + i).description("description of product " + i).price(9.99).stock(100);
+            product.setId(i);
+            product.setCategory(category);
+            products.add(product);
+            BasketItem item = new BasketItem().product(product).quantity(1).totalCost(new BigDecimal("9.99"));
+            item.setId(i);
+            basket.addBasketItem(item);
+        }
+    }
+
+    @Benchmark
+    public String serializeProducts() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(products);
+    }
+
+    @Benchmark
+    public String serializeBasket() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(basket);
+    }
+}
@@ -0,0 +1,105 @@
+package com.smartiq.pim.security.jwt;
+
+import com.smartiq.pim.management.SecurityMetersService;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Cost of the checks of the JWT token made on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    /**
+     * A valid token without expiration, which is never cached, so that each authentication verifies it.
+     */
+    private String uncachedToken;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            "user",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+        );
+        token = tokenProvider.createToken(authentication, false);
+        uncachedToken =
+            Jwts
+                .builder()
+                .setSubject("user")
+                .claim("auth", AuthoritiesConstants.USER + "," + AuthoritiesConstants.ADMIN)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET)), SignatureAlgorithm.HS512)
+                .compact();
+        tokenProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    /**
+     * The JWT filter validates the token, then reads the authentication from it.
+     */
+    @Benchmark
+    public Authentication validateTokenAndGetAuthentication() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    /**
+     * The JWT filter authenticates a token it has already seen, from the cache.
+     */
+    @Benchmark
+    public Optional<Authentication> authenticateCacheHit() {
+        return tokenProvider.authenticate(token);
+    }
+
+    /**
+     * The JWT filter authenticates a token it has not seen yet, parsing and verifying it once.
+     */
+    @Benchmark
+    public Optional<Authentication> authenticateCacheMiss() {
+        return tokenProvider.authenticate(uncachedToken);
+    }
+}
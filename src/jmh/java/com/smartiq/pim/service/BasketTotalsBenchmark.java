@@ -0,0 +1,61 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.Product;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the basket totals: the price of an item, applied incrementally by {@link BasketService}, against a
+ * recomputation of the whole basket as the repair job does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasketTotalsBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int items;
+
+    private Basket basket;
+
+    private Product product;
+
+    @Setup
+    public void setup() {
+        basket = new Basket().totalCost(BigDecimal.ZERO);
+        for (int i = 0; i < items; i++) {
+            Product itemProduct = new Product().name("product " + i).price(9.99 + i).stock(100);
+            BasketItem item = new BasketItem().product(itemProduct).quantity(i % 5 + 1);
+            item.setTotalCost(BasketService.totalCost(itemProduct, item.getQuantity()));
+            basket.addBasketItem(item);
+            basket.setTotalCost(basket.getTotalCost().add(item.getTotalCost()));
+        }
+        product = basket.getBasketItems().iterator().next().getProduct();
+    }
+
+    @Benchmark
+    public BigDecimal incrementalTotal() {
+        return basket.getTotalCost().add(BasketService.totalCost(product, 3)).subtract(BasketService.totalCost(product, 2));
+    }
+
+    @Benchmark
+    public BigDecimal recomputedTotal() {
+        return basket.getBasketItems().stream().map(BasketItem::getTotalCost).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartiq.pim.service.mapper;
+
+import com.smartiq.pim.domain.Authority;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.service.dto.AdminUserDTO;
+import com.smartiq.pim.service.dto.UserDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the conversions of a page of users by {@link UserMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    private List<AdminUserDTO> adminUserDTOs;
+
+    @Setup
+    public void setup() {
+        Authority user = new Authority();
+        user.setName(AuthoritiesConstants.USER);
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+        users = new ArrayList<>();
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            User entity = new User();
+            entity.setId(i);
+            entity.setLogin("user" + i);
+            entity.setEmail("user" + i + "@localhost");
+            entity.setFirstName("first" + i);
+            entity.setLastName("last" + i);
+            entity.setActivated(true);
+            entity.setLangKey("en");
+            entity.setAuthorities(Set.of(user, admin));
+            users.add(entity);
+        }
+        adminUserDTOs = userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(adminUserDTOs);
+    }
+}
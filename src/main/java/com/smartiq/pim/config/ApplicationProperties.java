@@ -1,6 +1,10 @@
 package com.smartiq.pim.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Pim.
@@ -13,6 +17,22 @@ public class ApplicationProperties {
 
     String orderManagementAppLink;
 
+    private final OmClient omClient = new OmClient();
+
+    private final OmOutbox omOutbox = new OmOutbox();
+
+    private final BasketExpiry basketExpiry = new BasketExpiry();
+
+    private final Login login = new Login();
+
+    private final RefreshToken refreshToken = new RefreshToken();
+
+    private final AuditJournal auditJournal = new AuditJournal();
+
+    private final Cache cache = new Cache();
+
+    private final Catalog catalog = new Catalog();
+
     public String getOrderManagementAppLink() {
         return orderManagementAppLink;
     }
@@ -20,4 +40,742 @@ public class ApplicationProperties {
     public void setOrderManagementAppLink(String orderManagementAppLink) {
         this.orderManagementAppLink = orderManagementAppLink;
     }
+
+    public OmClient getOmClient() {
+        return omClient;
+    }
+
+    public OmOutbox getOmOutbox() {
+        return omOutbox;
+    }
+
+    public BasketExpiry getBasketExpiry() {
+        return basketExpiry;
+    }
+
+    public Login getLogin() {
+        return login;
+    }
+
+    public RefreshToken getRefreshToken() {
+        return refreshToken;
+    }
+
+    public AuditJournal getAuditJournal() {
+        return auditJournal;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * HTTP client of the Order Management service.
+     */
+    public static class OmClient {
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        private Duration callTimeout = Duration.ofSeconds(10);
+
+        private int maxIdleConnections = 5;
+
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        private int maxConcurrentCalls = 10;
+
+        private float failureRateThreshold = 50;
+
+        private int slidingWindowSize = 20;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        /**
+         * Upper bound of a whole call, from the connection to the end of the response body.
+         */
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
+
+        public int getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        public void setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        /**
+         * Calls in flight beyond which new calls are rejected at once.
+         */
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        /**
+         * Percentage of failed calls, over the sliding window, which opens the circuit breaker.
+         */
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public Duration getWaitDurationInOpenState() {
+            return waitDurationInOpenState;
+        }
+
+        public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+            this.waitDurationInOpenState = waitDurationInOpenState;
+        }
+    }
+
+    /**
+     * Dispatching of the Order Management outbox.
+     */
+    public static class OmOutbox {
+
+        private boolean enabled = true;
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        private int batchSize = 50;
+
+        private int maxAttempts = 15;
+
+        private Duration initialBackoff = Duration.ofSeconds(2);
+
+        private Duration maxBackoff = Duration.ofMinutes(10);
+
+        private Duration lease = Duration.ofMinutes(1);
+
+        private final Batch batch = new Batch();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * How long a claimed message stays reserved to a dispatcher, beyond the time its call and the calls before it
+         * may take ({@code application.om-client.call-timeout} each), before another dispatcher may retry it.
+         */
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public Batch getBatch() {
+            return batch;
+        }
+
+        /**
+         * Coalescing of the due messages into batch calls, which the Order Management service must support.
+         */
+        public static class Batch {
+
+            private boolean enabled = false;
+
+            private int maxSize = 100;
+
+            private Duration maxWait = Duration.ofMillis(500);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            /**
+             * How long a due message may wait for a batch to fill up before it is sent in a smaller one.
+             */
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
+        }
+    }
+
+    /**
+     * Expiry of the abandoned active baskets.
+     */
+    public static class BasketExpiry {
+
+        private boolean enabled = true;
+
+        private String cron = "0 15 * * * ?";
+
+        private Duration ttl = Duration.ofDays(30);
+
+        private int chunkSize = 500;
+
+        private int maxRowsPerRun = 20000;
+
+        private boolean purgeItems = false;
+
+        private Duration itemRetention = Duration.ofDays(90);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        /**
+         * How long an active basket may stay unchanged before it is expired.
+         */
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        /**
+         * Rows updated or deleted by each statement, each in its own transaction.
+         */
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Rows updated or deleted by a run, beyond which the rest is left to the next run.
+         */
+        public int getMaxRowsPerRun() {
+            return maxRowsPerRun;
+        }
+
+        public void setMaxRowsPerRun(int maxRowsPerRun) {
+            this.maxRowsPerRun = maxRowsPerRun;
+        }
+
+        public boolean isPurgeItems() {
+            return purgeItems;
+        }
+
+        public void setPurgeItems(boolean purgeItems) {
+            this.purgeItems = purgeItems;
+        }
+
+        /**
+         * How long the items of an expired basket are kept before they are purged, when purging is enabled.
+         */
+        public Duration getItemRetention() {
+            return itemRetention;
+        }
+
+        public void setItemRetention(Duration itemRetention) {
+            this.itemRetention = itemRetention;
+        }
+    }
+
+    /**
+     * Password hashing and limits of the credential checks.
+     */
+    public static class Login {
+
+        private int bcryptStrength = 10;
+
+        private int hashingThreads = 2;
+
+        private int hashingQueueCapacity = 50;
+
+        private int attemptsPerLogin = 10;
+
+        private int attemptsPerIp = 100;
+
+        private String ipHeader;
+
+        private Duration attemptsRefillPeriod = Duration.ofMinutes(1);
+
+        /**
+         * Log rounds of the BCrypt hashes: the passwords hashed with fewer rounds are hashed again on login.
+         */
+        public int getBcryptStrength() {
+            return bcryptStrength;
+        }
+
+        public void setBcryptStrength(int bcryptStrength) {
+            this.bcryptStrength = bcryptStrength;
+        }
+
+        /**
+         * Threads hashing and checking passwords, so that a burst of logins cannot hold every request thread.
+         */
+        public int getHashingThreads() {
+            return hashingThreads;
+        }
+
+        public void setHashingThreads(int hashingThreads) {
+            this.hashingThreads = hashingThreads;
+        }
+
+        /**
+         * Passwords waiting for a hashing thread beyond which new ones are rejected at once.
+         */
+        public int getHashingQueueCapacity() {
+            return hashingQueueCapacity;
+        }
+
+        public void setHashingQueueCapacity(int hashingQueueCapacity) {
+            this.hashingQueueCapacity = hashingQueueCapacity;
+        }
+
+        /**
+         * Credential checks allowed for a login per refill period.
+         */
+        public int getAttemptsPerLogin() {
+            return attemptsPerLogin;
+        }
+
+        public void setAttemptsPerLogin(int attemptsPerLogin) {
+            this.attemptsPerLogin = attemptsPerLogin;
+        }
+
+        /**
+         * Credential checks allowed from an IP address per refill period.
+         */
+        public int getAttemptsPerIp() {
+            return attemptsPerIp;
+        }
+
+        public void setAttemptsPerIp(int attemptsPerIp) {
+            this.attemptsPerIp = attemptsPerIp;
+        }
+
+        /**
+         * Header holding the IP address of the client, set by a gateway which overwrites any value sent by the client.
+         * Without it, the remote address of the request is used, as resolved by {@code server.forward-headers-strategy}.
+         */
+        public String getIpHeader() {
+            return ipHeader;
+        }
+
+        public void setIpHeader(String ipHeader) {
+            this.ipHeader = ipHeader;
+        }
+
+        public Duration getAttemptsRefillPeriod() {
+            return attemptsRefillPeriod;
+        }
+
+        public void setAttemptsRefillPeriod(Duration attemptsRefillPeriod) {
+            this.attemptsRefillPeriod = attemptsRefillPeriod;
+        }
+    }
+
+    /**
+     * Refresh tokens, and the access tokens they are exchanged for.
+     */
+    public static class RefreshToken {
+
+        private Duration validity = Duration.ofDays(30);
+
+        private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+        public Duration getValidity() {
+            return validity;
+        }
+
+        public void setValidity(Duration validity) {
+            this.validity = validity;
+        }
+
+        /**
+         * Validity of the access tokens issued for a refresh token.
+         */
+        public Duration getAccessTokenValidity() {
+            return accessTokenValidity;
+        }
+
+        public void setAccessTokenValidity(Duration accessTokenValidity) {
+            this.accessTokenValidity = accessTokenValidity;
+        }
+    }
+
+    /**
+     * Journal of the changes of the audited entities, written behind the requests.
+     */
+    public static class AuditJournal {
+
+        private boolean enabled = true;
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 500;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Changes waiting to be written beyond which new changes are dropped, so that the journal cannot exhaust the memory.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Changes written by each batch insert.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    /**
+     * Sizing and expiry of each cache region, see {@link CacheConfiguration}.
+     * <p>
+     * Regions are keyed by cache name, without the package of the domain classes: {@code Product},
+     * {@code "[Category.products]"}, {@code usersByLogin}. Each region must be configured.
+     */
+    public static class Cache {
+
+        private String diskDirectory;
+
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        private final Statistics statistics = new Statistics();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        /**
+         * Directory of the disk tiers, required when a region has one.
+         */
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Statistics getStatistics() {
+            return statistics;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        /**
+         * Statistics of the cache regions, see {@link CacheRegionStatistics}.
+         */
+        public static class Statistics {
+
+            private boolean latencyEnabled = true;
+
+            /**
+             * Whether the latency of the gets is recorded by a timer of each region.
+             */
+            public boolean isLatencyEnabled() {
+                return latencyEnabled;
+            }
+
+            public void setLatencyEnabled(boolean latencyEnabled) {
+                this.latencyEnabled = latencyEnabled;
+            }
+        }
+
+        /**
+         * Invalidation of the caches of the other instances of the application, see
+         * {@link com.smartiq.pim.service.invalidation.CacheInvalidationService}.
+         */
+        public static class Invalidation {
+
+            private String transport = "http";
+
+            private String serviceId;
+
+            private Duration timeout = Duration.ofSeconds(2);
+
+            private int queueCapacity = 1000;
+
+            /**
+             * How the invalidations reach the other instances: {@code http}, posted to each instance registered in
+             * the discovery service; {@code loopback}, delivered within the application, for the tests; or
+             * {@code none}.
+             */
+            public String getTransport() {
+                return transport;
+            }
+
+            public void setTransport(String transport) {
+                this.transport = transport;
+            }
+
+            /**
+             * Service id of the instances in the discovery service, {@code spring.application.name} by default.
+             */
+            public String getServiceId() {
+                return serviceId;
+            }
+
+            public void setServiceId(String serviceId) {
+                this.serviceId = serviceId;
+            }
+
+            /**
+             * Timeout of each post to another instance.
+             */
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            /**
+             * Batches waiting to be posted beyond which new batches are dropped, so that an unreachable instance
+             * cannot exhaust the memory.
+             */
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        /**
+         * Tiers and expiry of a cache region.
+         * <p>
+         * The heap tier is sized either in entries or in bytes; without either, it holds
+         * {@code jhipster.cache.ehcache.max-entries} entries. Entries expire either after a time to live or after a
+         * time to idle; without either, they live {@code jhipster.cache.ehcache.time-to-live-seconds}. The off-heap and
+         * disk tiers store serialized entries, and must be larger than the tiers above them.
+         */
+        public static class Region {
+
+            private Long heapEntries;
+
+            private DataSize heapSize;
+
+            private DataSize offHeapSize;
+
+            private DataSize diskSize;
+
+            private Duration timeToLive;
+
+            private Duration timeToIdle;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getHeapSize() {
+                return heapSize;
+            }
+
+            public void setHeapSize(DataSize heapSize) {
+                this.heapSize = heapSize;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public DataSize getDiskSize() {
+                return diskSize;
+            }
+
+            public void setDiskSize(DataSize diskSize) {
+                this.diskSize = diskSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+    }
+
+    /**
+     * Version of the catalog, see {@link com.smartiq.pim.service.CatalogVersion}.
+     */
+    public static class Catalog {
+
+        private Duration versionMaxAge = Duration.ofSeconds(10);
+
+        /**
+         * How long the version read from the database is used before it is read again, should an invalidation sent
+         * by another instance be lost.
+         */
+        public Duration getVersionMaxAge() {
+            return versionMaxAge;
+        }
+
+        public void setVersionMaxAge(Duration versionMaxAge) {
+            this.versionMaxAge = versionMaxAge;
+        }
+    }
 }
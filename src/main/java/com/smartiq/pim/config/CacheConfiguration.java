@@ -1,9 +1,23 @@
 package com.smartiq.pim.config;
 
+import java.io.File;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -22,20 +36,46 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String DOMAIN_PACKAGE = "com.smartiq.pim.domain.";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
+    private final Set<String> configuredRegions = new HashSet<>();
+    private final List<String> missingRegions = new ArrayList<>();
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
+    }
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    /**
+     * The cache manager, with a persistence service when the regions have disk tiers.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder().withClassLoader(getClass().getClassLoader());
+        if (cacheProperties.getDiskDirectory() != null) {
+            File diskDirectory = new File(cacheProperties.getDiskDirectory());
+            configuration = configuration.withService(new CacheManagerPersistenceConfiguration(diskDirectory));
+        }
+        javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), configuration.build());
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    @Bean
+    public CacheRegionStatistics cacheRegionStatistics(javax.cache.CacheManager cacheManager) {
+        return new CacheRegionStatistics(cacheManager, cacheProperties.getStatistics());
+    }
+
+    @Bean
+    public CacheStatisticsEndpoint cacheStatisticsEndpoint(CacheRegionStatistics cacheRegionStatistics) {
+        return new CacheStatisticsEndpoint(cacheRegionStatistics);
     }
 
     @Bean
@@ -46,7 +86,8 @@ public class CacheConfiguration {
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
-            createCache(cm, "products");
+            createCache(cm, com.smartiq.pim.service.CatalogPageCache.CACHE_NAME);
+            createCache(cm, com.smartiq.pim.service.ActiveBasketCache.CACHE_NAME);
             createCache(cm, com.smartiq.pim.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.smartiq.pim.repository.UserRepository.USERS_BY_EMAIL_CACHE);
             createCache(cm, com.smartiq.pim.domain.User.class.getName());
@@ -63,17 +104,130 @@ public class CacheConfiguration {
             createCache(cm, com.smartiq.pim.domain.Address.class.getName());
             createCache(cm, com.smartiq.pim.domain.Order.class.getName());
             createCache(cm, com.smartiq.pim.domain.Address.class.getName() + ".orders");
+            createCache(cm, com.smartiq.pim.repository.ProductRepository.CATALOG_QUERIES_CACHE);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
             // jhipster-needle-ehcache-add-entry
+            checkRegions();
+            checkQueryRegions(
+                com.smartiq.pim.repository.ProductRepository.CATALOG_QUERIES_CACHE,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME
+            );
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        String regionName = regionName(cacheName);
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(regionName);
+        if (region == null) {
+            missingRegions.add(regionName);
+            return;
+        }
+        configuredRegions.add(regionName);
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfiguration(regionName, region)));
+        }
+    }
+
+    /**
+     * @return the name of the region of a cache, as configured in {@code application.cache.regions}.
+     */
+    static String regionName(String cacheName) {
+        return cacheName.startsWith(DOMAIN_PACKAGE) ? cacheName.substring(DOMAIN_PACKAGE.length()) : cacheName;
+    }
+
+    org.ehcache.config.CacheConfiguration<Object, Object> cacheConfiguration(
+        String regionName,
+        ApplicationProperties.Cache.Region region
+    ) {
+        if (region.getHeapEntries() != null && region.getHeapSize() != null) {
+            throw new IllegalStateException("Cache region " + regionName + " has both heap-entries and heap-size");
+        }
+        if (region.getTimeToLive() != null && region.getTimeToIdle() != null) {
+            throw new IllegalStateException("Cache region " + regionName + " has both time-to-live and time-to-idle");
+        }
+        if (region.getDiskSize() != null && cacheProperties.getDiskDirectory() == null) {
+            throw new IllegalStateException(
+                "Cache region " + regionName + " has a disk tier, but application.cache.disk-directory is not set"
+            );
+        }
+
+        ResourcePoolsBuilder resourcePools = region.getHeapSize() != null
+            ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapSize().toBytes(), MemoryUnit.B)
+            : ResourcePoolsBuilder.newResourcePoolsBuilder()
+                .heap(region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries(), EntryUnit.ENTRIES);
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        if (region.getDiskSize() != null) {
+            resourcePools = resourcePools.disk(region.getDiskSize().toBytes(), MemoryUnit.B);
+        }
+
+        ExpiryPolicy<Object, Object> expiry = region.getTimeToIdle() != null
+            ? ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle())
+            : ExpiryPolicyBuilder.timeToLiveExpiration(
+                region.getTimeToLive() != null ? region.getTimeToLive() : Duration.ofSeconds(ehcache.getTimeToLiveSeconds())
+            );
+
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiry);
+        if (region.getOffHeapSize() != null || region.getDiskSize() != null) {
+            // The lower tiers store serialized entries, and there is no default serializer for Object
+            builder =
+                builder
+                    .withKeySerializer(new PlainJavaSerializer<>(getClass().getClassLoader()))
+                    .withValueSerializer(new PlainJavaSerializer<>(getClass().getClassLoader()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Fail the startup when a cache has no region configured, or when a configured region is not a cache, as with a
+     * misspelt name.
+     */
+    private void checkRegions() {
+        Set<String> unknownRegions = new HashSet<>(cacheProperties.getRegions().keySet());
+        unknownRegions.removeAll(configuredRegions);
+        if (!missingRegions.isEmpty() || !unknownRegions.isEmpty()) {
+            throw new IllegalStateException(
+                "Cache regions are missing from application.cache.regions: " + missingRegions + ", unknown: " + unknownRegions
+            );
+        }
+    }
+
+    /**
+     * Fail the startup when cached query results may outlive the update timestamps they are checked against.
+     * <p>
+     * Hibernate considers the results of a query up to date when the timestamps of its tables are missing, so the
+     * timestamps must expire after the results, and an idle expiry is not allowed on either region. The timestamps
+     * region holds one entry per table and must not be sized below the number of tables.
+     */
+    void checkQueryRegions(String... queryRegionNames) {
+        String timestampsRegionName = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+        Duration timestampsTimeToLive = timeToLive(timestampsRegionName);
+        for (String queryRegionName : queryRegionNames) {
+            Duration queryTimeToLive = timeToLive(queryRegionName);
+            if (queryTimeToLive.compareTo(timestampsTimeToLive) > 0) {
+                throw new IllegalStateException(
+                    "Cache region " + queryRegionName + " must not live longer than " + timestampsRegionName + ": " + queryTimeToLive
+                );
+            }
+        }
+    }
+
+    private Duration timeToLive(String regionName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(regionName);
+        if (region == null) {
+            throw new IllegalStateException("Cache region " + regionName + " is missing from application.cache.regions");
+        }
+        if (region.getTimeToIdle() != null) {
+            throw new IllegalStateException("Cache region " + regionName + " is a query cache region and must not have a time-to-idle");
         }
+        return region.getTimeToLive() != null ? region.getTimeToLive() : Duration.ofSeconds(ehcache.getTimeToLiveSeconds());
     }
 
     @Autowired(required = false)
@@ -0,0 +1,60 @@
+package com.smartiq.pim.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartiq.pim.security.jwt.TokenProvider;
+import com.smartiq.pim.service.invalidation.CacheInvalidationTransport;
+import com.smartiq.pim.service.invalidation.HttpCacheInvalidationTransport;
+import com.smartiq.pim.service.invalidation.LoopbackCacheInvalidationTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Transport of the cache invalidations to the other instances, chosen by {@code application.cache.invalidation.transport}.
+ */
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    private static final String TRANSPORT_PROPERTY = "application.cache.invalidation.transport";
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = TRANSPORT_PROPERTY, havingValue = "http", matchIfMissing = true)
+    public HttpCacheInvalidationTransport httpCacheInvalidationTransport(
+        DiscoveryClient discoveryClient,
+        ObjectProvider<Registration> registration,
+        TokenProvider tokenProvider,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Value("${spring.application.name}") String applicationName
+    ) {
+        ApplicationProperties.Cache.Invalidation properties = applicationProperties.getCache().getInvalidation();
+        Registration localInstance = registration.getIfAvailable();
+        return new HttpCacheInvalidationTransport(
+            discoveryClient,
+            properties.getServiceId() != null ? properties.getServiceId() : applicationName,
+            localInstance != null ? localInstance.getInstanceId() : null,
+            tokenProvider,
+            objectMapper,
+            properties,
+            meterRegistry
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TRANSPORT_PROPERTY, havingValue = "loopback")
+    public LoopbackCacheInvalidationTransport loopbackCacheInvalidationTransport() {
+        return new LoopbackCacheInvalidationTransport();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TRANSPORT_PROPERTY, havingValue = "none")
+    public CacheInvalidationTransport noCacheInvalidationTransport() {
+        return invalidations -> {};
+    }
+}
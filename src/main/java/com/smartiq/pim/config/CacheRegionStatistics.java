@@ -0,0 +1,308 @@
+package com.smartiq.pim.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.internal.statistics.DefaultCacheStatistics;
+import org.ehcache.core.statistics.CacheOperationOutcomes.GetOutcome;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.ChainedOperationObserver;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Statistics of each cache region, read from the counters Ehcache keeps anyway, exposed as meters and as snapshots
+ * through the {@link CacheStatisticsEndpoint}.
+ * <p>
+ * The counters and the tier sizes are read when the meters are published, so they cost nothing on the cache
+ * operations. The get latency is measured by Ehcache for its JCache statistics; the optional timer only records it.
+ */
+public class CacheRegionStatistics implements MeterBinder {
+
+    public static final String GETS_METER_NAME = "cache.region.gets";
+    public static final String PUTS_METER_NAME = "cache.region.puts";
+    public static final String REMOVALS_METER_NAME = "cache.region.removals";
+    public static final String EVICTIONS_METER_NAME = "cache.region.evictions";
+    public static final String EXPIRATIONS_METER_NAME = "cache.region.expirations";
+    public static final String MAPPINGS_METER_NAME = "cache.region.mappings";
+    public static final String BYTES_METER_NAME = "cache.region.bytes";
+    public static final String GET_LATENCY_METER_NAME = "cache.region.get.latency";
+
+    private final Map<String, CacheStatistics> statisticsByRegion = new TreeMap<>();
+
+    private final Map<String, Timer> latencyTimers = new LinkedHashMap<>();
+
+    private final boolean latencyEnabled;
+
+    public CacheRegionStatistics(javax.cache.CacheManager cacheManager, ApplicationProperties.Cache.Statistics properties) {
+        this.latencyEnabled = properties.isLatencyEnabled();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            org.ehcache.Cache<?, ?> cache = cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class);
+            if (cache instanceof InternalCache) {
+                CacheStatistics statistics = new DefaultCacheStatistics((InternalCache<?, ?>) cache);
+                statisticsByRegion.put(CacheConfiguration.regionName(cacheName), statistics);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        statisticsByRegion.forEach((region, statistics) -> {
+            Tags tags = Tags.of("region", region);
+            counter(GETS_METER_NAME, "Gets of the region.", tags.and("result", "hit"), statistics, CacheStatistics::getCacheHits, registry);
+            counter(
+                GETS_METER_NAME,
+                "Gets of the region.",
+                tags.and("result", "miss"),
+                statistics,
+                CacheStatistics::getCacheMisses,
+                registry
+            );
+            counter(PUTS_METER_NAME, "Puts into the region.", tags, statistics, CacheStatistics::getCachePuts, registry);
+            counter(REMOVALS_METER_NAME, "Removals from the region.", tags, statistics, CacheStatistics::getCacheRemovals, registry);
+            counter(EVICTIONS_METER_NAME, "Entries evicted for room.", tags, statistics, CacheStatistics::getCacheEvictions, registry);
+            counter(EXPIRATIONS_METER_NAME, "Expired entries.", tags, statistics, CacheStatistics::getCacheExpirations, registry);
+            statistics
+                .getTierStatistics()
+                .forEach((tier, tierStatistics) -> {
+                    Tags tierTags = tags.and("tier", tier);
+                    gauge(MAPPINGS_METER_NAME, "Entries of the tier.", tierTags, tierStatistics, TierStatistics::getMappings, registry);
+                    // Heap tiers sized in entries do not measure their bytes
+                    if (tierStatistics.getAllocatedByteSize() >= 0) {
+                        gauge(
+                            BYTES_METER_NAME,
+                            "Bytes of the tier.",
+                            tierTags.and("type", "allocated"),
+                            tierStatistics,
+                            TierStatistics::getAllocatedByteSize,
+                            registry
+                        );
+                        gauge(
+                            BYTES_METER_NAME,
+                            "Bytes of the tier.",
+                            tierTags.and("type", "occupied"),
+                            tierStatistics,
+                            TierStatistics::getOccupiedByteSize,
+                            registry
+                        );
+                    }
+                });
+            if (latencyEnabled) {
+                Timer timer = Timer
+                    .builder(GET_LATENCY_METER_NAME)
+                    .description("Latency of the gets of the region.")
+                    .tags(tags)
+                    .register(registry);
+                latencyTimers.put(region, timer);
+                statistics.registerDerivedStatistic(GetOutcome.class, "get", new LatencyObserver(timer));
+            }
+        });
+    }
+
+    private static void counter(
+        String name,
+        String description,
+        Tags tags,
+        CacheStatistics statistics,
+        ToDoubleFunction<CacheStatistics> count,
+        MeterRegistry registry
+    ) {
+        FunctionCounter.builder(name, statistics, count).description(description).tags(tags).register(registry);
+    }
+
+    private static void gauge(
+        String name,
+        String description,
+        Tags tags,
+        TierStatistics statistics,
+        ToLongFunction<TierStatistics> value,
+        MeterRegistry registry
+    ) {
+        Gauge.builder(name, statistics, s -> value.applyAsLong(s)).description(description).tags(tags).register(registry);
+    }
+
+    /**
+     * @return the statistics of each region, by region name.
+     */
+    public Map<String, RegionSnapshot> snapshot() {
+        Map<String, RegionSnapshot> snapshot = new LinkedHashMap<>();
+        statisticsByRegion.forEach((region, statistics) -> snapshot.put(region, snapshot(region, statistics)));
+        return snapshot;
+    }
+
+    /**
+     * @param region the name of the region.
+     * @return the statistics of the region, or {@code null} if there is no such region.
+     */
+    public RegionSnapshot snapshot(String region) {
+        CacheStatistics statistics = statisticsByRegion.get(region);
+        return statistics == null ? null : snapshot(region, statistics);
+    }
+
+    private RegionSnapshot snapshot(String region, CacheStatistics statistics) {
+        Map<String, TierSnapshot> tiers = new TreeMap<>();
+        statistics
+            .getTierStatistics()
+            .forEach((tier, tierStatistics) ->
+                tiers.put(
+                    tier,
+                    new TierSnapshot(
+                        tierStatistics.getMappings(),
+                        tierStatistics.getAllocatedByteSize(),
+                        tierStatistics.getOccupiedByteSize()
+                    )
+                )
+            );
+        Timer timer = latencyTimers.get(region);
+        return new RegionSnapshot(
+            statistics.getCacheHits(),
+            statistics.getCacheMisses(),
+            statistics.getCachePuts(),
+            statistics.getCacheRemovals(),
+            statistics.getCacheEvictions(),
+            statistics.getCacheExpirations(),
+            timer == null ? null : timer.mean(TimeUnit.MICROSECONDS),
+            tiers
+        );
+    }
+
+    private static class LatencyObserver implements ChainedOperationObserver<GetOutcome> {
+
+        private final Timer timer;
+
+        LatencyObserver(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public void begin(long time) {}
+
+        @Override
+        public void end(long time, long latency, GetOutcome result) {
+            timer.record(latency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Statistics of a region, counted since the start of the application.
+     */
+    public static class RegionSnapshot {
+
+        private final long hits;
+
+        private final long misses;
+
+        private final long puts;
+
+        private final long removals;
+
+        private final long evictions;
+
+        private final long expirations;
+
+        private final Double meanGetLatencyMicros;
+
+        private final Map<String, TierSnapshot> tiers;
+
+        RegionSnapshot(
+            long hits,
+            long misses,
+            long puts,
+            long removals,
+            long evictions,
+            long expirations,
+            Double meanGetLatencyMicros,
+            Map<String, TierSnapshot> tiers
+        ) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.removals = removals;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.meanGetLatencyMicros = meanGetLatencyMicros;
+            this.tiers = tiers;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return the share of the gets that were hits, or {@code null} before the first get.
+         */
+        public Double getHitRatio() {
+            return hits + misses == 0 ? null : (double) hits / (hits + misses);
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        public long getRemovals() {
+            return removals;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        /**
+         * @return the mean latency of the gets, or {@code null} when it is not measured.
+         */
+        public Double getMeanGetLatencyMicros() {
+            return meanGetLatencyMicros;
+        }
+
+        public Map<String, TierSnapshot> getTiers() {
+            return tiers;
+        }
+    }
+
+    /**
+     * Size of a tier of a region. Heap tiers sized in entries report {@code -1} bytes.
+     */
+    public static class TierSnapshot {
+
+        private final long mappings;
+
+        private final long allocatedBytes;
+
+        private final long occupiedBytes;
+
+        TierSnapshot(long mappings, long allocatedBytes, long occupiedBytes) {
+            this.mappings = mappings;
+            this.allocatedBytes = allocatedBytes;
+            this.occupiedBytes = occupiedBytes;
+        }
+
+        public long getMappings() {
+            return mappings;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getOccupiedBytes() {
+            return occupiedBytes;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartiq.pim.config;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Management endpoint snapshotting the statistics of the cache regions, see {@link CacheRegionStatistics}.
+ */
+@Endpoint(id = "cachestatistics")
+public class CacheStatisticsEndpoint {
+
+    private final CacheRegionStatistics cacheRegionStatistics;
+
+    public CacheStatisticsEndpoint(CacheRegionStatistics cacheRegionStatistics) {
+        this.cacheRegionStatistics = cacheRegionStatistics;
+    }
+
+    /**
+     * {@code GET /management/cachestatistics?region=} : get the statistics of the cache regions.
+     *
+     * @param region the name of a region, such as {@code Product}, or {@code null} for all the regions.
+     * @return the statistics, by region name.
+     */
+    @ReadOperation
+    public Map<String, CacheRegionStatistics.RegionSnapshot> regions(@Nullable String region) {
+        if (region == null) {
+            return cacheRegionStatistics.snapshot();
+        }
+        CacheRegionStatistics.RegionSnapshot snapshot = cacheRegionStatistics.snapshot(region);
+        return snapshot == null ? Map.of() : Map.of(region, snapshot);
+    }
+}
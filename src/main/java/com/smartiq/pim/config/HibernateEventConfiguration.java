@@ -0,0 +1,111 @@
+package com.smartiq.pim.config;
+
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes an {@link EntityChangedEvent} for every entity insert, update and delete flushed by Hibernate,
+ * so that caches and other derived state can follow the database whatever code path wrote to it.
+ */
+@Configuration
+public class HibernateEventConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(HibernateEventConfiguration.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public HibernateEventConfiguration(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher applicationEventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        log.debug("Registering Hibernate entity change listeners");
+        EventListenerRegistry registry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        EntityChangedEventPublisher listener = new EntityChangedEventPublisher(applicationEventPublisher);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    private static class EntityChangedEventPublisher
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient ApplicationEventPublisher applicationEventPublisher;
+
+        EntityChangedEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+            this.applicationEventPublisher = applicationEventPublisher;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            publish(event.getPersister(), event.getId(), ChangeType.INSERT, Collections.emptySet(), event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            String[] propertyNames = event.getPersister().getPropertyNames();
+            Set<String> changedProperties = new HashSet<>();
+            if (event.getDirtyProperties() == null) {
+                // Hibernate did not compute the dirty properties, e.g. for an update of a detached entity
+                changedProperties.addAll(Arrays.asList(propertyNames));
+            } else {
+                for (int index : event.getDirtyProperties()) {
+                    changedProperties.add(propertyNames[index]);
+                }
+            }
+            publish(event.getPersister(), event.getId(), ChangeType.UPDATE, changedProperties, event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            publish(event.getPersister(), event.getId(), ChangeType.DELETE, Collections.emptySet(), event.getEntity());
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+
+        private void publish(
+            EntityPersister persister,
+            Serializable id,
+            ChangeType changeType,
+            Set<String> changedProperties,
+            Object entity
+        ) {
+            applicationEventPublisher.publishEvent(
+                new EntityChangedEvent(persister.getMappedClass(), id, changeType, changedProperties, entity)
+            );
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartiq.pim.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP client of the Order Management service, shared by all the calls so that connections are pooled and kept alive.
+ */
+@Configuration
+public class OmClientConfiguration {
+
+    public static final String REQUESTS_METER_NAME = "om.client.requests";
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Bean
+    public OkHttpClient omHttpClient(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.OmClient properties = applicationProperties.getOmClient();
+        return new OkHttpClient.Builder()
+            .connectionPool(
+                new ConnectionPool(properties.getMaxIdleConnections(), properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+            )
+            .connectTimeout(properties.getConnectTimeout())
+            .readTimeout(properties.getReadTimeout())
+            .writeTimeout(properties.getReadTimeout())
+            .callTimeout(properties.getCallTimeout())
+            // HTTP/2 is negotiated on TLS connections, HTTP/1.1 keep-alive is used otherwise
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .eventListener(
+                OkHttpMetricsEventListener
+                    .builder(meterRegistry, REQUESTS_METER_NAME)
+                    // One latency histogram per endpoint, not per order
+                    .uriMapper(request -> ID_SEGMENT.matcher(request.url().encodedPath()).replaceAll("/{id}"))
+                    .includeHostTag(false)
+                    .build()
+            )
+            .build();
+    }
+}
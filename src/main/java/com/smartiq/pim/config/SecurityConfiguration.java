@@ -2,6 +2,7 @@ package com.smartiq.pim.config;
 
 import com.smartiq.pim.security.*;
 import com.smartiq.pim.security.jwt.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -45,8 +46,14 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Login properties = applicationProperties.getLogin();
+        return new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(properties.getBcryptStrength()),
+            properties.getHashingThreads(),
+            properties.getHashingQueueCapacity(),
+            meterRegistry
+        );
     }
 
     @Bean
@@ -88,6 +95,8 @@ public class SecurityConfiguration {
         .and()
             .authorizeRequests()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
+            .antMatchers("/api/authenticate/revoke").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
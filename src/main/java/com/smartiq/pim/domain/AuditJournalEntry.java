@@ -0,0 +1,174 @@
+package com.smartiq.pim.domain;
+
+import com.smartiq.pim.domain.enumeration.AuditChangeType;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * An entry of the append-only audit journal: who changed which entity, and which of its properties, and when.
+ * <p>
+ * Entries are written in batches by the {@link com.smartiq.pim.service.AuditJournalService}, after the transaction
+ * of the change has committed, and are never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "audit_journal")
+public class AuditJournalEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", length = 10, nullable = false)
+    private AuditChangeType changeType;
+
+    @Size(max = 1024)
+    @Column(name = "changed_properties", length = 1024)
+    private String changedProperties;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "principal", length = 50, nullable = false)
+    private String principal;
+
+    @NotNull
+    @Column(name = "changed_date", nullable = false)
+    private Instant changedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return this.entityType;
+    }
+
+    public AuditJournalEntry entityType(String entityType) {
+        this.setEntityType(entityType);
+        return this;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public AuditJournalEntry entityId(Long entityId) {
+        this.setEntityId(entityId);
+        return this;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public AuditChangeType getChangeType() {
+        return this.changeType;
+    }
+
+    public AuditJournalEntry changeType(AuditChangeType changeType) {
+        this.setChangeType(changeType);
+        return this;
+    }
+
+    public void setChangeType(AuditChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    /**
+     * @return the comma-separated names of the properties modified by an update, {@code null} for inserts and deletes.
+     */
+    public String getChangedProperties() {
+        return this.changedProperties;
+    }
+
+    public AuditJournalEntry changedProperties(String changedProperties) {
+        this.setChangedProperties(changedProperties);
+        return this;
+    }
+
+    public void setChangedProperties(String changedProperties) {
+        this.changedProperties = changedProperties;
+    }
+
+    public String getPrincipal() {
+        return this.principal;
+    }
+
+    public AuditJournalEntry principal(String principal) {
+        this.setPrincipal(principal);
+        return this;
+    }
+
+    public void setPrincipal(String principal) {
+        this.principal = principal;
+    }
+
+    public Instant getChangedDate() {
+        return this.changedDate;
+    }
+
+    public AuditJournalEntry changedDate(Instant changedDate) {
+        this.setChangedDate(changedDate);
+        return this;
+    }
+
+    public void setChangedDate(Instant changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuditJournalEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((AuditJournalEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AuditJournalEntry{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", entityId=" + getEntityId() +
+            ", changeType='" + getChangeType() + "'" +
+            ", changedProperties='" + getChangedProperties() + "'" +
+            ", principal='" + getPrincipal() + "'" +
+            ", changedDate='" + getChangedDate() + "'" +
+            "}";
+    }
+}
@@ -4,11 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.smartiq.pim.domain.enumeration.BasketStatus;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
@@ -37,14 +40,18 @@ public class Basket implements Serializable {
     private BasketStatus status;
 
     @NotNull
-    @Column(name = "total_cost", nullable = false)
-    private Double totalCost;
+    @Column(name = "total_cost", precision = 21, scale = 2, nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(name = "last_modified_date", nullable = false)
+    private Instant lastModifiedDate = Instant.now();
 
     @ManyToOne
     @JsonIgnore
     private User user;
 
-    @OneToMany(mappedBy = "basket", fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "basket", orphanRemoval = true)
+    @BatchSize(size = 20)
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "basket", "product" }, allowSetters = true)
     private Set<BasketItem> basketItems = new HashSet<>();
@@ -90,19 +97,32 @@ public class Basket implements Serializable {
         this.status = status;
     }
 
-    public Double getTotalCost() {
+    public BigDecimal getTotalCost() {
         return this.totalCost;
     }
 
-    public Basket totalCost(Double totalCost) {
+    public Basket totalCost(BigDecimal totalCost) {
         this.setTotalCost(totalCost);
         return this;
     }
 
-    public void setTotalCost(Double totalCost) {
+    public void setTotalCost(BigDecimal totalCost) {
         this.totalCost = totalCost;
     }
 
+    public Instant getLastModifiedDate() {
+        return this.lastModifiedDate;
+    }
+
+    public Basket lastModifiedDate(Instant lastModifiedDate) {
+        this.setLastModifiedDate(lastModifiedDate);
+        return this;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
     public User getUser() {
         return this.user;
     }
@@ -174,6 +194,7 @@ public class Basket implements Serializable {
             ", createDate='" + getCreateDate() + "'" +
             ", status='" + getStatus() + "'" +
             ", totalCost=" + getTotalCost() +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
             "}";
     }
 }
@@ -2,6 +2,7 @@ package com.smartiq.pim.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import java.math.BigDecimal;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import org.hibernate.annotations.Cache;
@@ -11,7 +12,10 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
  * A BasketItem.
  */
 @Entity
-@Table(name = "basket_item")
+@Table(
+    name = "basket_item",
+    uniqueConstraints = @UniqueConstraint(name = "ux_basket_item__basket_product", columnNames = { "basket_id", "product_id" })
+)
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class BasketItem implements Serializable {
 
@@ -27,8 +31,8 @@ public class BasketItem implements Serializable {
     private Integer quantity;
 
     @NotNull
-    @Column(name = "total_cost", nullable = false)
-    private Integer totalCost;
+    @Column(name = "total_cost", precision = 21, scale = 2, nullable = false)
+    private BigDecimal totalCost;
 
     @ManyToOne
     @JsonIgnoreProperties(value = { "user", "basketItems" }, allowSetters = true)
@@ -66,16 +70,16 @@ public class BasketItem implements Serializable {
         this.quantity = quantity;
     }
 
-    public Integer getTotalCost() {
+    public BigDecimal getTotalCost() {
         return this.totalCost;
     }
 
-    public BasketItem totalCost(Integer totalCost) {
+    public BasketItem totalCost(BigDecimal totalCost) {
         this.setTotalCost(totalCost);
         return this;
     }
 
-    public void setTotalCost(Integer totalCost) {
+    public void setTotalCost(BigDecimal totalCost) {
         this.totalCost = totalCost;
     }
 
@@ -0,0 +1,257 @@
+package com.smartiq.pim.domain;
+
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageStatus;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageType;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A call to the Order Management service, recorded in the same transaction as the {@link Order} change it
+ * reports and sent later by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "om_outbox_message")
+public class OmOutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(name = "idempotency_key", length = 36, nullable = false, unique = true, updatable = false)
+    private String idempotencyKey;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private OmOutboxMessageType type;
+
+    @NotNull
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "user_login", length = 50, nullable = false, updatable = false)
+    private String userLogin;
+
+    @Lob
+    @Column(name = "payload", updatable = false)
+    private String payload;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OmOutboxMessageStatus status;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @Size(max = 255)
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate;
+
+    @Column(name = "sent_date")
+    private Instant sentDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIdempotencyKey() {
+        return this.idempotencyKey;
+    }
+
+    public OmOutboxMessage idempotencyKey(String idempotencyKey) {
+        this.setIdempotencyKey(idempotencyKey);
+        return this;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public OmOutboxMessageType getType() {
+        return this.type;
+    }
+
+    public OmOutboxMessage type(OmOutboxMessageType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(OmOutboxMessageType type) {
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return this.orderId;
+    }
+
+    public OmOutboxMessage orderId(Long orderId) {
+        this.setOrderId(orderId);
+        return this;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getUserLogin() {
+        return this.userLogin;
+    }
+
+    public OmOutboxMessage userLogin(String userLogin) {
+        this.setUserLogin(userLogin);
+        return this;
+    }
+
+    public void setUserLogin(String userLogin) {
+        this.userLogin = userLogin;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public OmOutboxMessage payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public OmOutboxMessageStatus getStatus() {
+        return this.status;
+    }
+
+    public OmOutboxMessage status(OmOutboxMessageStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(OmOutboxMessageStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public OmOutboxMessage attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptDate() {
+        return this.nextAttemptDate;
+    }
+
+    public OmOutboxMessage nextAttemptDate(Instant nextAttemptDate) {
+        this.setNextAttemptDate(nextAttemptDate);
+        return this;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public OmOutboxMessage lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public OmOutboxMessage createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getSentDate() {
+        return this.sentDate;
+    }
+
+    public OmOutboxMessage sentDate(Instant sentDate) {
+        this.setSentDate(sentDate);
+        return this;
+    }
+
+    public void setSentDate(Instant sentDate) {
+        this.sentDate = sentDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OmOutboxMessage)) {
+            return false;
+        }
+        return id != null && id.equals(((OmOutboxMessage) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OmOutboxMessage{" +
+            "id=" + getId() +
+            ", idempotencyKey='" + getIdempotencyKey() + "'" +
+            ", type='" + getType() + "'" +
+            ", orderId=" + getOrderId() +
+            ", userLogin='" + getUserLogin() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptDate='" + getNextAttemptDate() + "'" +
+            ", lastError='" + getLastError() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", sentDate='" + getSentDate() + "'" +
+            "}";
+    }
+}
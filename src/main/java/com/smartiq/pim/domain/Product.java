@@ -1,6 +1,7 @@
 package com.smartiq.pim.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
@@ -39,9 +40,12 @@ public class Product implements Serializable {
     @Column(name = "stock", nullable = false)
     private Integer stock;
 
-    @Lob
-    @Column(name = "photo")
-    private byte[] photo;
+    /**
+     * Image received with a create or update request. The binary data is moved to a {@link ProductPhoto}
+     * and is served by {@code GET /api/products/:id/photo}, so it is never part of a response.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private transient byte[] photo;
 
     @Column(name = "photo_content_type")
     private String photoContentType;
@@ -184,7 +188,6 @@ public class Product implements Serializable {
             ", description='" + getDescription() + "'" +
             ", price=" + getPrice() +
             ", stock=" + getStock() +
-            ", photo='" + getPhoto() + "'" +
             ", photoContentType='" + getPhotoContentType() + "'" +
             "}";
     }
@@ -0,0 +1,144 @@
+package com.smartiq.pim.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * The image of a {@link Product}, kept out of the {@code product} row so that catalog
+ * reads never load the binary data.
+ */
+@Entity
+@Table(name = "product_photo")
+public class ProductPhoto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Lob
+    @NotNull
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @NotNull
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @NotNull
+    @Column(name = "data_size", nullable = false)
+    private Long dataSize;
+
+    @Version
+    @Column(name = "version")
+    private Integer version;
+
+    @NotNull
+    @Column(name = "last_modified_date", nullable = false)
+    private Instant lastModifiedDate;
+
+    public Long getProductId() {
+        return this.productId;
+    }
+
+    public ProductPhoto productId(Long productId) {
+        this.setProductId(productId);
+        return this;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public byte[] getData() {
+        return this.data;
+    }
+
+    public ProductPhoto data(byte[] data) {
+        this.setData(data);
+        return this;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public ProductPhoto contentType(String contentType) {
+        this.setContentType(contentType);
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getDataSize() {
+        return this.dataSize;
+    }
+
+    public ProductPhoto dataSize(Long dataSize) {
+        this.setDataSize(dataSize);
+        return this;
+    }
+
+    public void setDataSize(Long dataSize) {
+        this.dataSize = dataSize;
+    }
+
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return this.lastModifiedDate;
+    }
+
+    public ProductPhoto lastModifiedDate(Instant lastModifiedDate) {
+        this.setLastModifiedDate(lastModifiedDate);
+        return this;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProductPhoto)) {
+            return false;
+        }
+        return productId != null && productId.equals(((ProductPhoto) o).productId);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductPhoto{" +
+            "productId=" + getProductId() +
+            ", contentType='" + getContentType() + "'" +
+            ", dataSize=" + getDataSize() +
+            ", version=" + getVersion() +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            "}";
+    }
+}
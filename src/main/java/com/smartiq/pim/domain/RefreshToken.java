@@ -0,0 +1,148 @@
+package com.smartiq.pim.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A refresh token, exchanged for a new access token and a new refresh token without checking the credentials of its
+ * user again.
+ * <p>
+ * Only the digest of the token is stored. A token is revoked once it has been used, and kept until it expires so
+ * that its reuse is noticed.
+ */
+@Entity
+@Table(name = "refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 44)
+    @Column(name = "token_hash", length = 44, nullable = false, unique = true, updatable = false)
+    private String tokenHash;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
+    private User user;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "expiry_date", nullable = false, updatable = false)
+    private Instant expiryDate;
+
+    @NotNull
+    @Column(name = "revoked", nullable = false)
+    private Boolean revoked = false;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return this.tokenHash;
+    }
+
+    public RefreshToken tokenHash(String tokenHash) {
+        this.setTokenHash(tokenHash);
+        return this;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public RefreshToken user(User user) {
+        this.setUser(user);
+        return this;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public RefreshToken createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiryDate() {
+        return this.expiryDate;
+    }
+
+    public RefreshToken expiryDate(Instant expiryDate) {
+        this.setExpiryDate(expiryDate);
+        return this;
+    }
+
+    public void setExpiryDate(Instant expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public Boolean getRevoked() {
+        return this.revoked;
+    }
+
+    public RefreshToken revoked(Boolean revoked) {
+        this.setRevoked(revoked);
+        return this;
+    }
+
+    public void setRevoked(Boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RefreshToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + getId() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", expiryDate='" + getExpiryDate() + "'" +
+            ", revoked='" + getRevoked() + "'" +
+            "}";
+    }
+}
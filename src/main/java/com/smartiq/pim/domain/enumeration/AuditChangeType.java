@@ -0,0 +1,10 @@
+package com.smartiq.pim.domain.enumeration;
+
+/**
+ * The AuditChangeType enumeration.
+ */
+public enum AuditChangeType {
+    INSERT,
+    UPDATE,
+    DELETE,
+}
@@ -0,0 +1,10 @@
+package com.smartiq.pim.domain.enumeration;
+
+/**
+ * The OmOutboxMessageStatus enumeration.
+ */
+public enum OmOutboxMessageStatus {
+    PENDING,
+    SENT,
+    DEAD,
+}
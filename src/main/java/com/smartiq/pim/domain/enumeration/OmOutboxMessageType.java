@@ -0,0 +1,9 @@
+package com.smartiq.pim.domain.enumeration;
+
+/**
+ * The OmOutboxMessageType enumeration: the Order Management call a message stands for.
+ */
+public enum OmOutboxMessageType {
+    CREATE_ORDER,
+    CANCEL_ORDER,
+}
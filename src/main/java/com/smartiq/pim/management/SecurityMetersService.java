@@ -1,7 +1,10 @@
 package com.smartiq.pim.management;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Supplier;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +16,35 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_HIT_RATIO_METER_NAME = "security.authentication.token-cache.hit-ratio";
+    public static final String TOKEN_CACHE_RESULT_DIMENSION = "result";
+    public static final String TOKEN_VERIFICATION_METER_NAME = "security.authentication.token-verification";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+
+    private final Timer tokenVerificationTimer;
+
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        Gauge
+            .builder(TOKEN_CACHE_HIT_RATIO_METER_NAME, this, SecurityMetersService::tokenCacheHitRatio)
+            .description("Ratio of the tokens found in the cache of the verified tokens.")
+            .register(registry);
+        this.tokenVerificationTimer =
+            Timer.builder(TOKEN_VERIFICATION_METER_NAME).description("Time spent parsing and verifying tokens.").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +55,18 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .description("Lookups of tokens in the cache of the verified tokens.")
+            .tag(TOKEN_CACHE_RESULT_DIMENSION, result);
+    }
+
+    private double tokenCacheHitRatio() {
+        double lookups = tokenCacheHitCounter.count() + tokenCacheMissCounter.count();
+        return lookups == 0 ? 0 : tokenCacheHitCounter.count() / lookups;
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +82,16 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public <T> T recordTokenVerification(Supplier<T> verification) {
+        return this.tokenVerificationTimer.record(verification);
+    }
 }
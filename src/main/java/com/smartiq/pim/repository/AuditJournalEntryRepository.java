@@ -0,0 +1,20 @@
+package com.smartiq.pim.repository;
+
+import com.smartiq.pim.domain.AuditJournalEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the AuditJournalEntry entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface AuditJournalEntryRepository extends JpaRepository<AuditJournalEntry, Long> {
+    Page<AuditJournalEntry> findAllByEntityTypeAndEntityId(String entityType, Long entityId, Pageable pageable);
+
+    Page<AuditJournalEntry> findAllByEntityType(String entityType, Pageable pageable);
+
+    Page<AuditJournalEntry> findAllByPrincipal(String principal, Pageable pageable);
+}
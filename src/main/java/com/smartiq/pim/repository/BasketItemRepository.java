@@ -1,7 +1,14 @@
 package com.smartiq.pim.repository;
 
 import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,39 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface BasketItemRepository extends JpaRepository<BasketItem, Long> {}
+public interface BasketItemRepository extends JpaRepository<BasketItem, Long> {
+    Optional<BasketItem> findOneByBasketIdAndProductId(Long basketId, Long productId);
+
+    /**
+     * Get the ids of the items of the baskets with the given status which were last changed before the given date and
+     * were not ordered.
+     *
+     * @param status the status of the baskets.
+     * @param before the date before which the baskets were last changed.
+     * @param pageable the number of ids to get.
+     * @return the ids, in id order.
+     */
+    @Query(
+        "select item.id from BasketItem item " +
+        "where item.basket.status = :status and item.basket.lastModifiedDate < :before " +
+        "and not exists (select jhiOrder.id from Order jhiOrder where jhiOrder.basket = item.basket) order by item.id"
+    )
+    List<Long> findIdsByBasketStatusAndBasketLastModifiedDateBefore(
+        @Param("status") BasketStatus status,
+        @Param("before") Instant before,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("delete from BasketItem item where item.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Get a slice of BasketItems in id order, starting after the given id, without counting them.
+     *
+     * @param id the id of the last basket item of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice.
+     */
+    Slice<BasketItem> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
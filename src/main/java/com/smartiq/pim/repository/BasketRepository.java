@@ -1,8 +1,15 @@
 package com.smartiq.pim.repository;
 
 import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,8 +21,89 @@ public interface BasketRepository extends JpaRepository<Basket, Long> {
     @Query("select basket from Basket basket where basket.user.login = ?#{principal.username}")
     List<Basket> findByUserIsCurrentUser();
 
+    @EntityGraph(attributePaths = { "basketItems", "basketItems.product" })
+    Optional<Basket> findOneWithBasketItemsById(Long id);
+
+    /**
+     * Get the newest basket of a user with the given status, reading the latest committed state.
+     *
+     * @param userId the id of the user.
+     * @param status the status of the basket.
+     * @return the basket, locked until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Basket> findFirstByUserIdAndStatusOrderByCreateDateDescIdDesc(Long userId, BasketStatus status);
+
+    /**
+     * Get the ids of the baskets with the given status which were last changed before the given date and were not
+     * ordered, least recently changed first.
+     *
+     * @param status the status of the baskets.
+     * @param before the date before which the baskets were last changed.
+     * @param pageable the number of ids to get.
+     * @return the ids.
+     */
+    @Query(
+        "select basket.id from Basket basket where basket.status = :status and basket.lastModifiedDate < :before " +
+        "and not exists (select jhiOrder.id from Order jhiOrder where jhiOrder.basket = basket) " +
+        "order by basket.lastModifiedDate"
+    )
+    List<Long> findIdsByStatusAndLastModifiedDateBefore(
+        @Param("status") BasketStatus status,
+        @Param("before") Instant before,
+        Pageable pageable
+    );
+
+    /**
+     * Change the status of the given baskets which still have the given status, were last changed before the given
+     * date and were not ordered.
+     *
+     * @param ids the ids of the baskets.
+     * @param status the current status of the baskets.
+     * @param newStatus the new status of the baskets.
+     * @param before the date before which the baskets were last changed.
+     * @return the number of updated baskets.
+     */
+    @Modifying
     @Query(
-        "select basket from Basket basket where basket.user.login = ?#{principal.username} and basket.status='ACTIVE' order by basket.createDate desc"
+        "update Basket basket set basket.status = :newStatus " +
+        "where basket.id in :ids and basket.status = :status and basket.lastModifiedDate < :before " +
+        "and not exists (select jhiOrder.id from Order jhiOrder where jhiOrder.basket = basket)"
     )
-    List<Basket> findActiveBasketOfCurrentUser();
+    int updateStatus(
+        @Param("ids") List<Long> ids,
+        @Param("status") BasketStatus status,
+        @Param("newStatus") BasketStatus newStatus,
+        @Param("before") Instant before
+    );
+
+    @Query("select max(basket.id) from Basket basket")
+    Long findMaxId();
+
+    /**
+     * Set the total of the baskets with the given status and an id in the given range to the sum of their items,
+     * where it differs.
+     *
+     * @param status the status of the baskets.
+     * @param fromId the lower bound of the ids, exclusive.
+     * @param toId the upper bound of the ids, inclusive.
+     * @return the number of updated baskets.
+     */
+    @Modifying
+    @Query(
+        "update Basket basket set basket.totalCost = " +
+        "(select coalesce(sum(item.totalCost), 0) from BasketItem item where item.basket = basket) " +
+        "where basket.status = :status and basket.id > :fromId and basket.id <= :toId and basket.totalCost <> " +
+        "(select coalesce(sum(item.totalCost), 0) from BasketItem item where item.basket = basket)"
+    )
+    int recomputeTotalCosts(@Param("status") BasketStatus status, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * Get a slice of Baskets in id order, starting after the given id, without counting them.
+     *
+     * @param id the id of the last basket of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice.
+     */
+    Slice<Basket> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
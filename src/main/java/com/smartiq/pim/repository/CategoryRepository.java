@@ -1,6 +1,9 @@
 package com.smartiq.pim.repository;
 
 import com.smartiq.pim.domain.Category;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +12,16 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {}
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+    /**
+     * Get a page of the Categories, cached with the other catalog queries, see {@link ProductRepository}.
+     */
+    @Override
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = ProductRepository.CATALOG_QUERIES_CACHE),
+        }
+    )
+    Page<Category> findAll(Pageable pageable);
+}
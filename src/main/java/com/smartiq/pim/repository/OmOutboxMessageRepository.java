@@ -0,0 +1,48 @@
+package com.smartiq.pim.repository;
+
+import com.smartiq.pim.domain.OmOutboxMessage;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageStatus;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the OmOutboxMessage entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OmOutboxMessageRepository extends JpaRepository<OmOutboxMessage, Long> {
+    /**
+     * Lock the pending messages due at the given date, skipping the rows already locked by another dispatcher.
+     * <p>
+     * A message is not due while an older message of the same order is pending, so the calls for an order are
+     * sent in the order they were recorded.
+     *
+     * @param now the current date.
+     * @param pageable the size of the batch.
+     * @return the locked messages, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select message from OmOutboxMessage message where message.status = 'PENDING' and message.nextAttemptDate <= :now " +
+        "and not exists (select previous.id from OmOutboxMessage previous where previous.orderId = message.orderId " +
+        "and previous.status = 'PENDING' and previous.id < message.id) order by message.id"
+    )
+    List<OmOutboxMessage> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    long countByStatus(OmOutboxMessageStatus status);
+
+    long countByStatusAndNextAttemptDateLessThanEqual(OmOutboxMessageStatus status, Instant date);
+
+    @Query("select min(message.nextAttemptDate) from OmOutboxMessage message where message.status = :status")
+    Instant findEarliestNextAttemptDateByStatus(@Param("status") OmOutboxMessageStatus status);
+
+    @Query("select min(message.createdDate) from OmOutboxMessage message where message.status = :status")
+    Instant findOldestCreatedDateByStatus(@Param("status") OmOutboxMessageStatus status);
+}
@@ -1,7 +1,13 @@
 package com.smartiq.pim.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import com.smartiq.pim.domain.Order;
+import com.smartiq.pim.service.dto.OrderExportDTO;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +17,26 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    int EXPORT_FETCH_SIZE = 500;
+
     @Query("select jhiOrder from Order jhiOrder where jhiOrder.user.login = ?#{principal.username}")
     List<Order> findByUserIsCurrentUser();
+
+    /**
+     * Stream all the orders in id order, flattened with their user, basket and address, fetching
+     * {@value #EXPORT_FETCH_SIZE} rows at a time.
+     * <p>
+     * The stream must be consumed and closed inside a transaction.
+     *
+     * @return the orders.
+     */
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE), @QueryHint(name = HINT_CACHEABLE, value = "false") })
+    @Query(
+        "select new com.smartiq.pim.service.dto.OrderExportDTO(jhiOrder.id, jhiOrder.createDate, jhiOrder.status, " +
+        "jhiUser.id, jhiUser.login, basket.id, basket.status, basket.totalCost, " +
+        "address.id, address.name, address.city, address.district, address.details) " +
+        "from Order jhiOrder left join jhiOrder.user jhiUser left join jhiOrder.basket basket " +
+        "left join jhiOrder.address address order by jhiOrder.id"
+    )
+    Stream<OrderExportDTO> streamAllForExport();
 }
@@ -0,0 +1,18 @@
+package com.smartiq.pim.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of a {@link com.smartiq.pim.domain.ProductPhoto} without its binary data.
+ */
+public interface ProductPhotoMetadata {
+    Long getProductId();
+
+    String getContentType();
+
+    Long getDataSize();
+
+    Integer getVersion();
+
+    Instant getLastModifiedDate();
+}
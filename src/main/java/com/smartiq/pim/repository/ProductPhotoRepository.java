@@ -0,0 +1,25 @@
+package com.smartiq.pim.repository;
+
+import com.smartiq.pim.domain.ProductPhoto;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the ProductPhoto entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ProductPhotoRepository extends JpaRepository<ProductPhoto, Long> {
+    @Query(
+        "select photo.productId as productId, photo.contentType as contentType, photo.dataSize as dataSize, " +
+        "photo.version as version, photo.lastModifiedDate as lastModifiedDate " +
+        "from ProductPhoto photo where photo.productId = :productId"
+    )
+    Optional<ProductPhotoMetadata> findMetadataByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("delete from ProductPhoto photo where photo.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -1,12 +1,59 @@
 package com.smartiq.pim.repository;
 
 import com.smartiq.pim.domain.Product;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the Product entity.
+ * <p>
+ * The catalog queries are cached in the {@link #CATALOG_QUERIES_CACHE} query cache region. Their results are
+ * invalidated by Hibernate on every write to the tables they read, and entities are then read from the second level
+ * cache.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    String CATALOG_QUERIES_CACHE = "catalogQueries";
+
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = CATALOG_QUERIES_CACHE),
+        }
+    )
+    @Query(
+        value = "select product.id as id, product.name as name, product.price as price, product.stock as stock, " +
+        "category.name as categoryName from Product product left join product.category category",
+        countQuery = "select count(product) from Product product"
+    )
+    Page<ProductSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Get a page of the Products of a category.
+     *
+     * @param categoryId the id of the category.
+     * @param pageable the pagination information.
+     * @return the page.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = CATALOG_QUERIES_CACHE),
+        }
+    )
+    Page<Product> findAllByCategoryId(Long categoryId, Pageable pageable);
+
+    /**
+     * Get a slice of Products in id order, starting after the given id, without counting them.
+     *
+     * @param id the id of the last product of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice.
+     */
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.smartiq.pim.repository;
+
+/**
+ * Projection of a {@link com.smartiq.pim.domain.Product} with the columns shown in catalog listings,
+ * read as plain values rather than as managed entities.
+ */
+public interface ProductSummary {
+    Long getId();
+
+    String getName();
+
+    Double getPrice();
+
+    Integer getStock();
+
+    String getCategoryName();
+}
@@ -0,0 +1,47 @@
+package com.smartiq.pim.repository;
+
+import com.smartiq.pim.domain.RefreshToken;
+import com.smartiq.pim.domain.User;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the RefreshToken entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    /**
+     * Find a token by its digest, with its user and their authorities in the same query.
+     *
+     * @param tokenHash the digest of the token.
+     * @return the token.
+     */
+    @EntityGraph(attributePaths = { "user", "user.authorities" })
+    Optional<RefreshToken> findOneWithUserByTokenHash(String tokenHash);
+
+    /**
+     * Revoke a token unless it was already revoked, so that a token is only ever exchanged once.
+     *
+     * @param id the id of the token.
+     * @return {@code 1} if the token was revoked by this call, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query("update RefreshToken token set token.revoked = true where token.id = :id and token.revoked = false")
+    int revokeById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken token set token.revoked = true where token.user = :user and token.revoked = false")
+    int revokeByUser(@Param("user") User user);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.user = :user")
+    int deleteByUser(@Param("user") User user);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.expiryDate < :date")
+    int deleteByExpiryDateBefore(@Param("date") Instant date);
+}
@@ -4,10 +4,12 @@ import com.smartiq.pim.domain.User;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -24,6 +26,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Get a user and lock it until the end of the transaction, to serialize the changes made on behalf of this user.
+     *
+     * @param login the login of the user.
+     * @return the locked user.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<User> findOneForUpdateByLogin(String login);
+
     @EntityGraph(attributePaths = "authorities")
     @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
@@ -11,5 +11,16 @@ public final class AuthoritiesConstants {
 
     public static final String ANONYMOUS = "ROLE_ANONYMOUS";
 
+    /**
+     * Held by the other instances of the application, when they post cache invalidations.
+     */
+    public static final String CACHE_PEER = "ROLE_CACHE_PEER";
+
+    /**
+     * Held by the batch calls made to the Order Management service on behalf of the system, see
+     * {@link com.smartiq.pim.service.OmOutboxDispatcher}.
+     */
+    public static final String OM_BATCH_CLIENT = "ROLE_OM_BATCH_CLIENT";
+
     private AuthoritiesConstants() {}
 }
@@ -0,0 +1,69 @@
+package com.smartiq.pim.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of the shared, immutable authority collections of each distinct combination of authorities.
+ * <p>
+ * Users only hold a handful of distinct combinations of authorities, see {@link AuthoritiesConstants}, so each
+ * combination is built once and then shared by all the authentications which hold it. The registry is bounded: once
+ * full, the collections of new combinations are built but not registered.
+ */
+public final class AuthorityRegistry {
+
+    static final int MAXIMUM_SIZE = 256;
+
+    private static final String SEPARATOR = ",";
+
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES_BY_CLAIM = new ConcurrentHashMap<>();
+
+    private AuthorityRegistry() {}
+
+    /**
+     * Get the authorities of a comma-separated list of authority names, as carried by the tokens.
+     *
+     * @param claim the comma-separated authority names.
+     * @return the shared, immutable authorities.
+     */
+    public static List<GrantedAuthority> fromClaim(String claim) {
+        List<GrantedAuthority> authorities = AUTHORITIES_BY_CLAIM.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = parse(claim);
+        if (AUTHORITIES_BY_CLAIM.size() < MAXIMUM_SIZE) {
+            List<GrantedAuthority> registered = AUTHORITIES_BY_CLAIM.putIfAbsent(claim, authorities);
+            return registered != null ? registered : authorities;
+        }
+        return authorities;
+    }
+
+    /**
+     * Get the authorities of some authority names.
+     *
+     * @param names the authority names.
+     * @return the shared, immutable authorities.
+     */
+    public static List<GrantedAuthority> fromNames(Collection<String> names) {
+        return fromClaim(names.stream().sorted().collect(Collectors.joining(SEPARATOR)));
+    }
+
+    static void clear() {
+        AUTHORITIES_BY_CLAIM.clear();
+    }
+
+    private static List<GrantedAuthority> parse(String claim) {
+        return Arrays
+            .stream(claim.split(SEPARATOR))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toUnmodifiableList());
+    }
+}
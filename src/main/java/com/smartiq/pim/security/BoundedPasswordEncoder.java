@@ -0,0 +1,80 @@
+package com.smartiq.pim.security;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedThreadPoolBulkheadMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder hashing and checking the passwords on a bounded pool of threads.
+ * <p>
+ * Hashing is deliberately slow: on the request threads, a burst of logins would hold all of them and starve the other
+ * requests. The passwords are instead hashed by a few threads, and new ones are rejected at once with a
+ * {@link PasswordHashingBusyException} when too many are already waiting.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    public static final String RESILIENCE_NAME = "passwordHashing";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolBulkhead bulkhead;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        ThreadPoolBulkheadRegistry bulkheadRegistry = ThreadPoolBulkheadRegistry.of(
+            ThreadPoolBulkheadConfig
+                .custom()
+                .coreThreadPoolSize(threads)
+                .maxThreadPoolSize(threads)
+                .queueCapacity(queueCapacity)
+                .writableStackTraceEnabled(false)
+                .build()
+        );
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_NAME);
+        TaggedThreadPoolBulkheadMetrics.ofThreadPoolBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only reads the cost of the hash
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Supplier<T> hashing) {
+        try {
+            return bulkhead.executeSupplier(hashing).toCompletableFuture().join();
+        } catch (BulkheadFullException e) {
+            throw new PasswordHashingBusyException(e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    int queueDepth() {
+        return bulkhead.getMetrics().getQueueDepth();
+    }
+
+    @Override
+    public void close() throws Exception {
+        bulkhead.close();
+    }
+}
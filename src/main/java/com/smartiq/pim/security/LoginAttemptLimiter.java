@@ -0,0 +1,111 @@
+package com.smartiq.pim.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartiq.pim.config.ApplicationProperties;
+import java.util.Locale;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Limits of the credential checks, with a token bucket per login and another per IP address.
+ * <p>
+ * Each credential check takes a token from both buckets, and the buckets are refilled over time up to their capacity.
+ * Buckets which were not used for a whole refill period are full again, so they are dropped.
+ * <p>
+ * Behind a gateway or a load balancer, the IP address of the request is the one of the proxy, shared by every client.
+ * The address of the client is then resolved by {@code server.forward-headers-strategy} from the forwarded headers
+ * set by the proxy, or read from the header configured by {@link ApplicationProperties.Login#getIpHeader()}.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final int MAXIMUM_BUCKETS = 100_000;
+
+    private final ApplicationProperties.Login properties;
+
+    private final Cache<String, TokenBucket> bucketsByLogin;
+
+    private final Cache<String, TokenBucket> bucketsByIp;
+
+    public LoginAttemptLimiter(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getLogin();
+        this.bucketsByLogin = buckets();
+        this.bucketsByIp = buckets();
+    }
+
+    private Cache<String, TokenBucket> buckets() {
+        return Caffeine.newBuilder().maximumSize(MAXIMUM_BUCKETS).expireAfterAccess(properties.getAttemptsRefillPeriod()).build();
+    }
+
+    /**
+     * Get the IP address the credentials of a request come from: the value of the configured header if the request has
+     * it, else the remote address of the request.
+     *
+     * @param request the request.
+     * @return the IP address of the client.
+     */
+    public String clientAddress(HttpServletRequest request) {
+        String header = properties.getIpHeader();
+        String value = StringUtils.hasText(header) ? request.getHeader(header) : null;
+        if (!StringUtils.hasText(value)) {
+            return request.getRemoteAddr();
+        }
+        // Appended to by each proxy, so the last address is the one seen by the gateway
+        return value.substring(value.lastIndexOf(',') + 1).trim();
+    }
+
+    /**
+     * Take a credential check from the buckets of a login and of an IP address.
+     *
+     * @param login the login, or email, whose credentials are checked.
+     * @param ip the IP address the credentials come from.
+     * @throws LoginAttemptsExceededException if either bucket is empty.
+     */
+    public void acquire(String login, String ip) {
+        long refillPeriodNanos = properties.getAttemptsRefillPeriod().toNanos();
+        TokenBucket ipBucket = bucketsByIp.get(ip, key -> new TokenBucket(properties.getAttemptsPerIp(), refillPeriodNanos));
+        if (!ipBucket.tryConsume(System.nanoTime())) {
+            throw new LoginAttemptsExceededException("Too many credential checks from " + ip);
+        }
+        TokenBucket loginBucket = bucketsByLogin.get(
+            login.toLowerCase(Locale.ENGLISH),
+            key -> new TokenBucket(properties.getAttemptsPerLogin(), refillPeriodNanos)
+        );
+        if (!loginBucket.tryConsume(System.nanoTime())) {
+            throw new LoginAttemptsExceededException("Too many credential checks for " + login);
+        }
+    }
+
+    /**
+     * Bucket of tokens, refilled continuously with its whole capacity per refill period.
+     */
+    static final class TokenBucket {
+
+        private final int capacity;
+
+        private final double tokensPerNano;
+
+        private double tokens;
+
+        private long lastRefill;
+
+        TokenBucket(int capacity, long refillPeriodNanos) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) capacity / refillPeriodNanos;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
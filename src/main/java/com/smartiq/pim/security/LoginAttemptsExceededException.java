@@ -0,0 +1,13 @@
+package com.smartiq.pim.security;
+
+/**
+ * This exception is thrown when the credentials of a login, or from an IP address, were checked too often.
+ */
+public class LoginAttemptsExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoginAttemptsExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartiq.pim.security;
+
+/**
+ * This exception is thrown when too many passwords are already waiting to be hashed or checked.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException(Throwable cause) {
+        super("Too many passwords are waiting to be hashed", cause);
+    }
+}
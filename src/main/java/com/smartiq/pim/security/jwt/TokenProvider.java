@@ -1,20 +1,26 @@
 package com.smartiq.pim.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.smartiq.pim.management.SecurityMetersService;
+import com.smartiq.pim.security.AuthorityRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -29,6 +35,8 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    private static final int AUTHENTICATION_CACHE_MAXIMUM_SIZE = 10_000;
+
     private final Key key;
 
     private final JwtParser jwtParser;
@@ -39,6 +47,15 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
+    /**
+     * Authentication of the verified tokens, keyed by the digest of the token, until the token expires.
+     */
+    private final Cache<String, VerifiedToken> authenticationCache = Caffeine
+        .newBuilder()
+        .maximumSize(AUTHENTICATION_CACHE_MAXIMUM_SIZE)
+        .expireAfter(new VerifiedTokenExpiry())
+        .build();
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
@@ -63,15 +80,20 @@ public class TokenProvider {
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
+        return createToken(authentication, rememberMe ? this.tokenValidityInMillisecondsForRememberMe : this.tokenValidityInMilliseconds);
+    }
+
+    /**
+     * Create a token valid for the given time, whatever the configured validity.
+     *
+     * @param authentication the authentication carried by the token.
+     * @param validityInMilliseconds how long the token is valid.
+     * @return the token.
+     */
+    public String createToken(Authentication authentication, long validityInMilliseconds) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
 
-        long now = (new Date()).getTime();
-        Date validity;
-        if (rememberMe) {
-            validity = new Date(now + this.tokenValidityInMillisecondsForRememberMe);
-        } else {
-            validity = new Date(now + this.tokenValidityInMilliseconds);
-        }
+        Date validity = new Date((new Date()).getTime() + validityInMilliseconds);
 
         return Jwts
             .builder()
@@ -82,25 +104,46 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Verify a token and get the authentication it carries, parsing and verifying the token once.
+     * <p>
+     * Verified tokens are cached until they expire, so the following requests with the same token are authenticated
+     * without verifying its signature again.
+     *
+     * @param token the token.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        String digest = digest(token);
+        VerifiedToken verifiedToken = authenticationCache.getIfPresent(digest);
+        if (verifiedToken != null && verifiedToken.isValidAt(System.currentTimeMillis())) {
+            securityMetersService.trackTokenCacheHit();
+            return Optional.of(verifiedToken.toAuthentication(token));
+        }
+        securityMetersService.trackTokenCacheMiss();
+        return securityMetersService
+            .recordTokenVerification(() -> parseClaims(token))
+            .map(claims -> {
+                VerifiedToken verified = new VerifiedToken(claims);
+                if (claims.getExpiration() != null) {
+                    authenticationCache.put(digest, verified);
+                }
+                return verified.toAuthentication(token);
+            });
+    }
+
     public Authentication getAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return new VerifiedToken(claims).toAuthentication(token);
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return parseClaims(authToken).isPresent();
+    }
 
-            return true;
+    private Optional<Claims> parseClaims(String authToken) {
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +164,62 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Principal and authorities of a verified token, shared by the authentications of all its requests.
+     */
+    private static final class VerifiedToken {
+
+        private final User principal;
+
+        private final List<GrantedAuthority> authorities;
+
+        private final long expiration;
+
+        VerifiedToken(Claims claims) {
+            this.authorities = AuthorityRegistry.fromClaim(claims.get(AUTHORITIES_KEY).toString());
+            this.principal = new User(claims.getSubject(), "", authorities);
+            this.expiration = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        }
+
+        boolean isValidAt(long time) {
+            return time < expiration;
+        }
+
+        Authentication toAuthentication(String token) {
+            return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        }
+    }
+
+    /**
+     * Expires the verified tokens when the tokens themselves expire.
+     */
+    private static final class VerifiedTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken verifiedToken, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, verifiedToken.expiration - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,71 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of the id of the active basket of each user, keyed by user id.
+ * <p>
+ * The entry of a user is evicted when one of their baskets is created or deleted, or changes status or owner: once
+ * when the change is flushed, and again when its transaction completes. The basket itself is read by id, from the
+ * second level cache.
+ */
+@Service
+public class ActiveBasketCache {
+
+    public static final String CACHE_NAME = "activeBasketByUser";
+
+    private final Cache cache;
+
+    public ActiveBasketCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    public Optional<Long> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId, Long.class));
+    }
+
+    public void put(Long userId, Long basketId) {
+        cache.put(userId, basketId);
+    }
+
+    public void evict(Long userId) {
+        cache.evict(userId);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        evict(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onEntityChangeCompleted(EntityChangedEvent event) {
+        evict(event);
+    }
+
+    private void evict(EntityChangedEvent event) {
+        if (!event.isAbout(Basket.class) || !(event.getEntity() instanceof Basket)) {
+            return;
+        }
+        if (
+            event.getChangeType() == ChangeType.UPDATE &&
+            !event.getChangedProperties().contains("status") &&
+            !event.getChangedProperties().contains("user")
+        ) {
+            return;
+        }
+        Basket basket = (Basket) event.getEntity();
+        if (basket.getUser() != null) {
+            evict(basket.getUser().getId());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.config.Constants;
+import com.smartiq.pim.domain.AuditJournalEntry;
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.Order;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.domain.enumeration.AuditChangeType;
+import com.smartiq.pim.repository.AuditJournalEntryRepository;
+import com.smartiq.pim.security.SecurityUtils;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Journal of who changed the users, products, baskets and orders, which of their properties, and when.
+ * <p>
+ * Changes are queued once their transaction has committed, and written in batches by a background flusher, so
+ * journaling adds no statement to the requests. The queue is bounded: when the flusher falls behind, new changes are
+ * dropped and counted rather than held in memory. Bulk statements bypass the entity events and are not journaled.
+ */
+@Service
+public class AuditJournalService {
+
+    public static final String ENTRIES_METER_NAME = "audit.journal.entries";
+    public static final String BACKLOG_METER_NAME = "audit.journal.backlog";
+
+    private static final int MAX_CHANGED_PROPERTIES_LENGTH = 1024;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final List<Class<?>> AUDITED_TYPES = List.of(User.class, Product.class, Basket.class, Order.class);
+
+    private static final String INSERT_SQL =
+        "insert into audit_journal (entity_type, entity_id, change_type, changed_properties, principal, changed_date) " +
+        "values (?, ?, ?, ?, ?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(AuditJournalService.class);
+
+    private final AuditJournalEntryRepository auditJournalEntryRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.AuditJournal properties;
+
+    private final BlockingQueue<AuditJournalEntry> queue;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    public AuditJournalService(
+        AuditJournalEntryRepository auditJournalEntryRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.auditJournalEntryRepository = auditJournalEntryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getAuditJournal();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.writtenCounter = entriesCounter("written", registry);
+        this.droppedCounter = entriesCounter("dropped", registry);
+        Gauge.builder(BACKLOG_METER_NAME, queue, BlockingQueue::size).description("Changes waiting to be journaled.").register(registry);
+    }
+
+    private static Counter entriesCounter(String result, MeterRegistry registry) {
+        return Counter.builder(ENTRIES_METER_NAME).description("Changes of the audited entities.").tag("result", result).register(registry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!properties.isEnabled() || AUDITED_TYPES.stream().noneMatch(event::isAbout) || !(event.getEntityId() instanceof Long)) {
+            return;
+        }
+        AuditJournalEntry entry = new AuditJournalEntry()
+            .entityType(event.getEntityClass().getSimpleName())
+            .entityId((Long) event.getEntityId())
+            .changeType(AuditChangeType.valueOf(event.getChangeType().name()))
+            .changedProperties(changedProperties(event))
+            .principal(SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM))
+            .changedDate(Instant.now());
+        if (!queue.offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private static String changedProperties(EntityChangedEvent event) {
+        if (event.getChangedProperties().isEmpty()) {
+            return null;
+        }
+        String changedProperties = event.getChangedProperties().stream().sorted().collect(Collectors.joining(","));
+        return changedProperties.length() > MAX_CHANGED_PROPERTIES_LENGTH
+            ? changedProperties.substring(0, MAX_CHANGED_PROPERTIES_LENGTH)
+            : changedProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${application.audit-journal.flush-interval:PT1S}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Write the queued changes, batch after batch and one transaction per batch, until the queue is empty.
+     *
+     * @return the number of written changes.
+     */
+    public synchronized int flush() {
+        int written = 0;
+        List<AuditJournalEntry> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AuditJournalService::setValues)
+                );
+                written += batch.size();
+                writtenCounter.increment(batch.size());
+            } catch (DataAccessException e) {
+                log.error("Could not journal {} changes: {}", batch.size(), e.getMessage());
+                droppedCounter.increment(batch.size());
+            }
+            batch.clear();
+        }
+        return written;
+    }
+
+    private static void setValues(PreparedStatement statement, AuditJournalEntry entry) throws SQLException {
+        statement.setString(1, entry.getEntityType());
+        statement.setLong(2, entry.getEntityId());
+        statement.setString(3, entry.getChangeType().name());
+        statement.setString(4, entry.getChangedProperties());
+        statement.setString(5, entry.getPrincipal());
+        // As written by Hibernate, see hibernate.jdbc.time_zone
+        statement.setTimestamp(6, Timestamp.from(entry.getChangedDate()), Calendar.getInstance(UTC));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Get the journaled changes of an entity type, or of an entity, or of a principal.
+     *
+     * @param entityType the simple name of the entity class, or {@code null} for the changes of a principal.
+     * @param entityId the id of the entity, or {@code null} for all the entities of the type.
+     * @param principal the login of the principal, used when no entity type is given.
+     * @param pageable the pagination information.
+     * @return the changes.
+     */
+    @Transactional(readOnly = true)
+    public Page<AuditJournalEntry> findEntries(String entityType, Long entityId, String principal, Pageable pageable) {
+        if (entityType == null) {
+            return principal == null
+                ? auditJournalEntryRepository.findAll(pageable)
+                : auditJournalEntryRepository.findAllByPrincipal(principal, pageable);
+        }
+        return entityId == null
+            ? auditJournalEntryRepository.findAllByEntityType(entityType, pageable)
+            : auditJournalEntryRepository.findAllByEntityTypeAndEntityId(entityType, entityId, pageable);
+    }
+}
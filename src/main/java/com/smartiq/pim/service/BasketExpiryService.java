@@ -0,0 +1,172 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import com.smartiq.pim.repository.BasketItemRepository;
+import com.smartiq.pim.repository.BasketRepository;
+import com.smartiq.pim.service.invalidation.CacheInvalidationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Expiry of the active baskets which were abandoned by their users, and purge of the items of the expired baskets.
+ * <p>
+ * Baskets are updated and items are deleted with bulk statements in chunks, each in its own short transaction, up to
+ * a number of rows per run, so that the job never holds many locks for long. The bulk statements bypass the entity
+ * events: once each chunk has committed, the cached baskets or items are evicted from the second level cache of
+ * every instance, and the {@link ActiveBasketCache} entry of an expired basket is dropped when it is next read and
+ * found expired.
+ */
+@Service
+public class BasketExpiryService {
+
+    public static final String ROWS_METER_NAME = "basket.expiry.rows";
+    public static final String RUN_METER_NAME = "basket.expiry.run";
+
+    private final Logger log = LoggerFactory.getLogger(BasketExpiryService.class);
+
+    private final BasketRepository basketRepository;
+
+    private final BasketItemRepository basketItemRepository;
+
+    private final ApplicationProperties.BasketExpiry properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final Counter expiredCounter;
+    private final Counter purgedCounter;
+
+    private final Timer runTimer;
+
+    public BasketExpiryService(
+        BasketRepository basketRepository,
+        BasketItemRepository basketItemRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        CacheInvalidationService cacheInvalidationService,
+        MeterRegistry registry
+    ) {
+        this.basketRepository = basketRepository;
+        this.basketItemRepository = basketItemRepository;
+        this.properties = applicationProperties.getBasketExpiry();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidationService = cacheInvalidationService;
+
+        this.expiredCounter = rowsCounter("expired", registry);
+        this.purgedCounter = rowsCounter("purged", registry);
+        this.runTimer = Timer.builder(RUN_METER_NAME).description("Duration of the basket expiry runs.").register(registry);
+    }
+
+    private static Counter rowsCounter(String operation, MeterRegistry registry) {
+        return Counter
+            .builder(ROWS_METER_NAME)
+            .description("Rows touched by the basket expiry.")
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    /**
+     * Expire the abandoned baskets, then purge the items of the old expired ones if enabled.
+     * <p>
+     * This is scheduled to get fired every hour by default, see {@link ApplicationProperties.BasketExpiry#getCron()}.
+     */
+    @Scheduled(cron = "${application.basket-expiry.cron:0 15 * * * ?}")
+    public void scheduledExpiry() {
+        if (properties.isEnabled()) {
+            runTimer.record(this::run);
+        }
+    }
+
+    private void run() {
+        int expired = expireAbandonedBaskets();
+        int purged = properties.isPurgeItems() ? purgeExpiredBasketItems() : 0;
+        if (expired > 0 || purged > 0) {
+            log.info("Expired {} Baskets and purged {} BasketItems", expired, purged);
+        }
+    }
+
+    /**
+     * Expire the active baskets which were not changed for longer than the configured time to live and were not
+     * ordered.
+     *
+     * @return the number of expired baskets.
+     */
+    public int expireAbandonedBaskets() {
+        Instant before = Instant.now().minus(properties.getTtl());
+        int expired = inChunks(
+            Basket.class,
+            limit -> {
+                List<Long> ids = basketRepository.findIdsByStatusAndLastModifiedDateBefore(
+                    BasketStatus.ACTIVE,
+                    before,
+                    PageRequest.of(0, limit)
+                );
+                // The dates are checked again, as a basket may have been changed since it was read
+                return ids.isEmpty() ? 0 : basketRepository.updateStatus(ids, BasketStatus.ACTIVE, BasketStatus.EXPIRED, before);
+            }
+        );
+        expiredCounter.increment(expired);
+        return expired;
+    }
+
+    /**
+     * Delete the items of the expired baskets which were not changed for longer than the configured retention and
+     * were not ordered.
+     *
+     * @return the number of deleted items.
+     */
+    public int purgeExpiredBasketItems() {
+        Instant before = Instant.now().minus(properties.getItemRetention());
+        int purged = inChunks(
+            BasketItem.class,
+            limit -> {
+                List<Long> ids = basketItemRepository.findIdsByBasketStatusAndBasketLastModifiedDateBefore(
+                    BasketStatus.EXPIRED,
+                    before,
+                    PageRequest.of(0, limit)
+                );
+                return ids.isEmpty() ? 0 : basketItemRepository.deleteByIdIn(ids);
+            }
+        );
+        purgedCounter.increment(purged);
+        return purged;
+    }
+
+    /**
+     * Run a chunk, each in its own transaction, until a chunk touches no row or the rows per run are exhausted. Once
+     * a chunk touching rows has committed, the touched entities are evicted from the second level caches.
+     *
+     * @param touchedEntity the type of the entities touched by the chunk.
+     * @param chunk the chunk, given the maximum number of rows to touch, returning the number of touched rows.
+     * @return the number of touched rows.
+     */
+    private int inChunks(Class<?> touchedEntity, IntFunction<Integer> chunk) {
+        int touched = 0;
+        int lastChunk;
+        do {
+            int limit = Math.min(properties.getChunkSize(), properties.getMaxRowsPerRun() - touched);
+            Integer chunkTouched = transactionTemplate.execute(status -> chunk.apply(limit));
+            lastChunk = chunkTouched != null ? chunkTouched : 0;
+            if (lastChunk > 0) {
+                cacheInvalidationService.evictEntityRegions(touchedEntity);
+            }
+            touched += lastChunk;
+        } while (lastChunk > 0 && touched < properties.getMaxRowsPerRun());
+        return touched;
+    }
+}
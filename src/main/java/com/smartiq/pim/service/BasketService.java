@@ -0,0 +1,266 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import com.smartiq.pim.repository.BasketItemRepository;
+import com.smartiq.pim.repository.BasketRepository;
+import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.service.invalidation.CacheInvalidationService;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class for the active basket of a user.
+ * <p>
+ * Every change locks the user first, so the concurrent requests of a user are applied one after the other: they
+ * cannot create two active baskets, nor add the same product twice, nor lose an update of the basket total. A change
+ * then reads and locks the basket in the database, never from the second level cache, which may still hold a total
+ * written by another instance. Reading the active basket of a user without changing it goes through the
+ * {@link ActiveBasketCache}, so that it does not query the database when the basket is in the second level cache.
+ * Every change of the items of a basket updates its last modified date, from which the {@link BasketExpiryService}
+ * expires abandoned baskets.
+ */
+@Service
+@Transactional
+public class BasketService {
+
+    private static final long REPAIR_BATCH_SIZE = 1000;
+
+    private static final int TOTAL_COST_SCALE = 2;
+
+    private final Logger log = LoggerFactory.getLogger(BasketService.class);
+
+    private final BasketRepository basketRepository;
+
+    private final BasketItemRepository basketItemRepository;
+
+    private final ProductRepository productRepository;
+
+    private final UserRepository userRepository;
+
+    private final ActiveBasketCache activeBasketCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public BasketService(
+        BasketRepository basketRepository,
+        BasketItemRepository basketItemRepository,
+        ProductRepository productRepository,
+        UserRepository userRepository,
+        ActiveBasketCache activeBasketCache,
+        PlatformTransactionManager transactionManager,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        this.basketRepository = basketRepository;
+        this.basketItemRepository = basketItemRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.activeBasketCache = activeBasketCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    /**
+     * Get the active basket of a user, creating it if needed.
+     *
+     * @param login the login of the user.
+     * @return the active basket, with its items.
+     */
+    public Basket getOrCreateActiveBasket(String login) {
+        User user = userRepository
+            .findOneWithAuthoritiesByLogin(login)
+            .orElseThrow(() -> new IllegalStateException("User " + login + " was not found in the database"));
+        Basket basket = findCachedActiveBasket(user.getId()).orElseGet(() -> lockActiveBasket(login));
+        Hibernate.initialize(basket.getBasketItems());
+        return basket;
+    }
+
+    /**
+     * Lock a user, then lock and read their active basket from the database, creating it if needed.
+     */
+    private Basket lockActiveBasket(String login) {
+        User user = userRepository
+            .findOneForUpdateByLogin(login)
+            .orElseThrow(() -> new IllegalStateException("User " + login + " was not found in the database"));
+        Basket basket = basketRepository
+            .findFirstByUserIdAndStatusOrderByCreateDateDescIdDesc(user.getId(), BasketStatus.ACTIVE)
+            .orElseGet(() -> {
+                log.debug("Creating the active Basket of : {}", login);
+                Basket newBasket = new Basket();
+                newBasket.setCreateDate(LocalDate.now());
+                newBasket.setStatus(BasketStatus.ACTIVE);
+                newBasket.setTotalCost(BigDecimal.ZERO);
+                newBasket.setUser(user);
+                return basketRepository.save(newBasket);
+            });
+        activeBasketCache.put(user.getId(), basket.getId());
+        // Every change reads the items, and the basket is returned with them
+        Hibernate.initialize(basket.getBasketItems());
+        return basket;
+    }
+
+    /**
+     * Get the cached active basket of a user, checking that it is still theirs and still active.
+     */
+    private Optional<Basket> findCachedActiveBasket(Long userId) {
+        Optional<Basket> basket = activeBasketCache
+            .get(userId)
+            .flatMap(basketRepository::findById)
+            .filter(cached -> cached.getStatus() == BasketStatus.ACTIVE)
+            .filter(cached -> cached.getUser() != null && userId.equals(cached.getUser().getId()));
+        if (basket.isEmpty()) {
+            activeBasketCache.evict(userId);
+        }
+        return basket;
+    }
+
+    /**
+     * Add one unit of a product to the active basket of a user: the quantity of the product is increased if it is
+     * already in the basket.
+     *
+     * @param login the login of the user.
+     * @param productId the id of the product.
+     * @return the active basket, or empty if the product does not exist.
+     */
+    public Optional<Basket> addItem(String login, Long productId) {
+        log.debug("Request to add Product {} to the Basket of : {}", productId, login);
+        Optional<Product> product = productRepository.findById(productId);
+        if (product.isEmpty()) {
+            return Optional.empty();
+        }
+        Basket basket = lockActiveBasket(login);
+        basket.setLastModifiedDate(Instant.now());
+
+        Optional<BasketItem> existingItem = basketItemRepository.findOneByBasketIdAndProductId(basket.getId(), productId);
+        if (existingItem.isPresent()) {
+            setQuantity(basket, existingItem.get(), existingItem.get().getQuantity() + 1);
+        } else {
+            BasketItem basketItem = new BasketItem();
+            basketItem.setProduct(product.get());
+            basketItem.setBasket(basket);
+            basketItem.setQuantity(0);
+            basketItem.setTotalCost(BigDecimal.ZERO);
+            setQuantity(basket, basketItem, 1);
+            basketItemRepository.save(basketItem);
+            basket.getBasketItems().add(basketItem);
+        }
+        return Optional.of(basket);
+    }
+
+    /**
+     * Change the quantity of an item of the active basket of a user, removing it when the quantity is zero.
+     *
+     * @param login the login of the user.
+     * @param basketItemId the id of the item.
+     * @param quantity the new quantity.
+     * @return the active basket, or empty if the item is not in it.
+     */
+    public Optional<Basket> changeItemQuantity(String login, Long basketItemId, int quantity) {
+        log.debug("Request to change the quantity of BasketItem {} in the Basket of {} to : {}", basketItemId, login, quantity);
+        if (quantity <= 0) {
+            return Optional.of(removeItem(login, basketItemId));
+        }
+        Basket basket = lockActiveBasket(login);
+        return findItem(basket, basketItemId)
+            .map(basketItem -> {
+                basket.setLastModifiedDate(Instant.now());
+                setQuantity(basket, basketItem, quantity);
+                return basket;
+            });
+    }
+
+    /**
+     * Remove an item from the active basket of a user, if it is in it.
+     *
+     * @param login the login of the user.
+     * @param basketItemId the id of the item.
+     * @return the active basket.
+     */
+    public Basket removeItem(String login, Long basketItemId) {
+        log.debug("Request to remove BasketItem {} from the Basket of : {}", basketItemId, login);
+        Basket basket = lockActiveBasket(login);
+        findItem(basket, basketItemId)
+            .ifPresent(basketItem -> {
+                basket.getBasketItems().remove(basketItem);
+                basketItemRepository.delete(basketItem);
+                basket.setLastModifiedDate(Instant.now());
+                basket.setTotalCost(basket.getTotalCost().subtract(basketItem.getTotalCost()));
+            });
+        return basket;
+    }
+
+    private Optional<BasketItem> findItem(Basket basket, Long basketItemId) {
+        return basket.getBasketItems().stream().filter(basketItem -> basketItem.getId().equals(basketItemId)).findFirst();
+    }
+
+    /**
+     * Set the quantity of an item at the current price of its product, and apply the difference of the item total to
+     * the basket total.
+     */
+    private void setQuantity(Basket basket, BasketItem basketItem, int quantity) {
+        BigDecimal totalCost = totalCost(basketItem.getProduct(), quantity);
+        basket.setTotalCost(basket.getTotalCost().add(totalCost).subtract(basketItem.getTotalCost()));
+        basketItem.setQuantity(quantity);
+        basketItem.setTotalCost(totalCost);
+    }
+
+    /**
+     * Get the total cost of a quantity of a product at its current price, rounded to the scale of the stored totals so
+     * that the basket total is the sum of the item totals as stored.
+     */
+    static BigDecimal totalCost(Product product, int quantity) {
+        return BigDecimal
+            .valueOf(product.getPrice())
+            .multiply(BigDecimal.valueOf(quantity))
+            .setScale(TOTAL_COST_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Recompute the total of the active baskets from their items, to repair any drift of the incrementally
+     * maintained totals.
+     * <p>
+     * This is scheduled to get fired every day, at 02:00 (am). The baskets are updated in batches of consecutive
+     * ids, each in its own transaction, so that no lock is held for long. The bulk updates publish no entity change,
+     * so the cached baskets of every instance are evicted after each batch repairing some.
+     *
+     * @return the number of repaired baskets.
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int repairActiveBasketTotals() {
+        Long maxId = basketRepository.findMaxId();
+        int repaired = 0;
+        for (long batchStart = 0; maxId != null && batchStart < maxId; batchStart += REPAIR_BATCH_SIZE) {
+            long fromId = batchStart;
+            Integer batchRepaired = transactionTemplate.execute(
+                status -> basketRepository.recomputeTotalCosts(BasketStatus.ACTIVE, fromId, fromId + REPAIR_BATCH_SIZE)
+            );
+            if (batchRepaired != null && batchRepaired > 0) {
+                cacheInvalidationService.evictEntityRegions(Basket.class);
+                repaired += batchRepaired;
+            }
+        }
+        if (repaired > 0) {
+            log.warn("Repaired the total of {} active Baskets", repaired);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,307 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.domain.Category;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.PreDestroy;
+import org.ehcache.event.CacheEvent;
+import org.ehcache.event.CacheEventListener;
+import org.ehcache.event.EventFiring;
+import org.ehcache.event.EventOrdering;
+import org.ehcache.event.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of the serialized product catalog pages, keyed by the normalized page number, size and sort.
+ * <p>
+ * Entries are invalidated from the {@link EntityChangedEvent}s of products and categories: once when the change
+ * is flushed, and again when its transaction completes, so that a page read in between is not kept. An update
+ * only evicts the pages listing the product and the pages sorted on one of the modified properties, while
+ * inserts and deletes shift every page and clear the whole cache.
+ * <p>
+ * The index of the cached pages by product and sort property is pruned when the cache evicts or expires a page, so
+ * that it does not grow with the pages requested since the last clear. Only the body, total count and product ids
+ * of a page are cached: its pagination headers are built for each request.
+ */
+@Service
+public class CatalogPageCache {
+
+    public static final String CACHE_NAME = "catalogPages";
+
+    public static final String REQUESTS_METER_NAME = "catalog.page.cache.requests";
+    public static final String EVICTIONS_METER_NAME = "catalog.page.cache.evictions";
+
+    private final Logger log = LoggerFactory.getLogger(CatalogPageCache.class);
+
+    private final Cache cache;
+
+    private final Map<Long, Set<String>> keysByProduct = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> keysBySortProperty = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    private long generation;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter pageEvictionCounter;
+    private final Counter clearCounter;
+
+    /**
+     * The Ehcache behind {@link #cache}, {@code null} for the other cache implementations, as in the unit tests, which
+     * neither evict nor expire the pages.
+     */
+    private final org.ehcache.Cache<Object, Object> ehcache;
+
+    private final CacheEventListener<Object, Object> removalListener = this::onPageRemoved;
+
+    @SuppressWarnings("unchecked")
+    public CatalogPageCache(CacheManager cacheManager, MeterRegistry registry) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+        this.ehcache =
+            cache.getNativeCache() instanceof javax.cache.Cache
+                ? ((javax.cache.Cache<?, ?>) cache.getNativeCache()).unwrap(org.ehcache.Cache.class)
+                : null;
+        if (ehcache != null) {
+            ehcache
+                .getRuntimeConfiguration()
+                .registerCacheEventListener(
+                    removalListener,
+                    EventOrdering.UNORDERED,
+                    // The listener reads the cache, which it must not do from the store operation firing the event
+                    EventFiring.ASYNCHRONOUS,
+                    EnumSet.of(EventType.EVICTED, EventType.EXPIRED)
+                );
+        }
+        this.hitCounter = requestsCounter("hit", registry);
+        this.missCounter = requestsCounter("miss", registry);
+        this.pageEvictionCounter = evictionsCounter("page", registry);
+        this.clearCounter = evictionsCounter("all", registry);
+    }
+
+    @PreDestroy
+    public void deregister() {
+        if (ehcache != null) {
+            ehcache.getRuntimeConfiguration().deregisterCacheEventListener(removalListener);
+        }
+    }
+
+    private static Counter requestsCounter(String result, MeterRegistry registry) {
+        return Counter
+            .builder(REQUESTS_METER_NAME)
+            .description("Lookups of catalog pages in the page cache.")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static Counter evictionsCounter(String scope, MeterRegistry registry) {
+        return Counter
+            .builder(EVICTIONS_METER_NAME)
+            .description("Catalog pages evicted after a product or category change.")
+            .tag("scope", scope)
+            .register(registry);
+    }
+
+    /**
+     * Get a catalog page from the cache, or load and cache it.
+     *
+     * @param pageable the requested page.
+     * @param loader computes the page on a cache miss.
+     * @return the cached or loaded page.
+     */
+    public CachedPage get(Pageable pageable, Supplier<CachedPage> loader) {
+        String key = key(pageable);
+        CachedPage page = cache.get(key, CachedPage.class);
+        if (page != null) {
+            hitCounter.increment();
+            return page;
+        }
+        missCounter.increment();
+        long loadGeneration;
+        synchronized (lock) {
+            loadGeneration = generation;
+        }
+        page = loader.get();
+        synchronized (lock) {
+            // Do not keep a page which may have been read before a concurrent change was invalidated
+            if (loadGeneration == generation) {
+                cache.put(key, page);
+                page.getProductIds().forEach(id -> keysByProduct.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(key));
+                sortRoots(pageable.getSort()).forEach(root -> keysBySortProperty.computeIfAbsent(root, k -> ConcurrentHashMap.newKeySet()).add(key));
+            }
+        }
+        return page;
+    }
+
+    private void onPageRemoved(CacheEvent<?, ?> event) {
+        String key = (String) event.getKey();
+        synchronized (lock) {
+            // The page may have been cached again since it was evicted, its index must then be kept
+            if (ehcache.containsKey(key)) {
+                return;
+            }
+            ((CachedPage) event.getOldValue()).getProductIds().forEach(id -> unindex(keysByProduct, id, key));
+            keysBySortProperty.keySet().forEach(root -> unindex(keysBySortProperty, root, key));
+        }
+    }
+
+    private static <K> void unindex(Map<K, Set<String>> index, K indexKey, String key) {
+        index.computeIfPresent(
+            indexKey,
+            (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            }
+        );
+    }
+
+    /**
+     * @return the number of page keys in the index, for the tests.
+     */
+    int indexSize() {
+        synchronized (lock) {
+            return Stream
+                .concat(keysByProduct.values().stream(), keysBySortProperty.values().stream())
+                .mapToInt(Set::size)
+                .sum();
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onEntityChangeCompleted(EntityChangedEvent event) {
+        invalidate(event);
+    }
+
+    private void invalidate(EntityChangedEvent event) {
+        if (event.isAbout(Product.class)) {
+            if (event.getChangeType() == EntityChangedEvent.ChangeType.UPDATE) {
+                evictProduct((Long) event.getEntityId(), event.getChangedProperties());
+            } else {
+                clear();
+            }
+        } else if (event.isAbout(Category.class) && event.getChangeType() != EntityChangedEvent.ChangeType.INSERT) {
+            // Category names are part of every listed product
+            clear();
+        }
+    }
+
+    private void evictProduct(Long productId, Set<String> changedProperties) {
+        synchronized (lock) {
+            generation++;
+            Set<String> keys = new HashSet<>();
+            Set<String> productKeys = keysByProduct.remove(productId);
+            if (productKeys != null) {
+                keys.addAll(productKeys);
+            }
+            changedProperties.forEach(property -> {
+                Set<String> sortedKeys = keysBySortProperty.remove(property);
+                if (sortedKeys != null) {
+                    keys.addAll(sortedKeys);
+                }
+            });
+            log.debug("Evicting {} catalog pages after an update of Product : {}", keys.size(), productId);
+            keys.forEach(cache::evict);
+            pageEvictionCounter.increment(keys.size());
+        }
+    }
+
+    /**
+     * Evict all the catalog pages.
+     */
+    public void clear() {
+        synchronized (lock) {
+            generation++;
+            log.debug("Evicting all catalog pages");
+            cache.clear();
+            keysByProduct.clear();
+            keysBySortProperty.clear();
+            clearCounter.increment();
+        }
+    }
+
+    static String key(Pageable pageable) {
+        String sort = pageable
+            .getSort()
+            .stream()
+            .map(order ->
+                order.getProperty() +
+                ":" +
+                order.getDirection() +
+                (order.isIgnoreCase() ? ":ignorecase" : "") +
+                (order.getNullHandling() == Sort.NullHandling.NATIVE ? "" : ":" + order.getNullHandling())
+            )
+            .collect(Collectors.joining(","));
+        return "page=" + pageable.getPageNumber() + "&size=" + pageable.getPageSize() + "&sort=" + sort;
+    }
+
+    private static Set<String> sortRoots(Sort sort) {
+        return StreamSupport
+            .stream(sort.spliterator(), false)
+            .map(order -> order.getProperty().split("\\.")[0])
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * A catalog page as sent to clients: the serialized body and the total number of products, plus the ids of the
+     * listed products.
+     */
+    public static class CachedPage implements Serializable {
+
+        private static final long serialVersionUID = 2L;
+
+        private final byte[] body;
+
+        private final long totalElements;
+
+        private final ArrayList<Long> productIds;
+
+        public CachedPage(byte[] body, long totalElements, Collection<Long> productIds) {
+            this.body = body;
+            this.totalElements = totalElements;
+            this.productIds = new ArrayList<>(productIds);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.Category;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of the product catalog, bumped by every transaction writing a product or a category.
+ * <p>
+ * The version is a row of the {@code catalog_version} table, shared by all the instances, so that a tag sent by one
+ * instance is recognized by the others. It is bumped within the writing transaction, when the first change is
+ * flushed. Each instance keeps the version it last read, and reads it again after a local change completes, when
+ * {@link #refresh()} is called for a change made by another instance, and at the latest after
+ * {@code application.catalog.version-max-age}.
+ */
+@Service
+public class CatalogVersion {
+
+    private static final String SELECT_VERSION = "select version from catalog_version where id = 1";
+
+    private static final String BUMP_VERSION = "update catalog_version set version = version + 1 where id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long maxAgeNanos;
+
+    /**
+     * Incremented by each refresh, so that a version read concurrently with a refresh is not kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile ReadVersion current;
+
+    public CatalogVersion(JdbcTemplate jdbcTemplate, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAgeNanos = applicationProperties.getCatalog().getVersionMaxAge().toNanos();
+    }
+
+    public long getVersion() {
+        ReadVersion read = current;
+        if (read == null || read.generation != generation.get() || System.nanoTime() - read.readAt > maxAgeNanos) {
+            long readGeneration = generation.get();
+            long readAt = System.nanoTime();
+            read = new ReadVersion(jdbcTemplate.queryForObject(SELECT_VERSION, Long.class), readAt, readGeneration);
+            current = read;
+        }
+        return read.version;
+    }
+
+    /**
+     * Get a strong entity tag for the current version of the catalog.
+     * <p>
+     * Read it before reading any catalog data, so that the tag is never newer than the response it is sent with.
+     *
+     * @return the entity tag, quoted.
+     */
+    public String getETag() {
+        return "\"" + getVersion() + "\"";
+    }
+
+    /**
+     * Forget the version read from the database, so that the next tag reads it again.
+     */
+    public void refresh() {
+        generation.incrementAndGet();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!event.isAbout(Product.class) && !event.isAbout(Category.class)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(BUMP_VERSION);
+            refresh();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            // Already bumped by this transaction
+            return;
+        }
+        jdbcTemplate.update(BUMP_VERSION);
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new BumpedVersion());
+        refresh();
+    }
+
+    private static final class ReadVersion {
+
+        private final long version;
+
+        private final long readAt;
+
+        private final long generation;
+
+        ReadVersion(long version, long readAt, long generation) {
+            this.version = version;
+            this.readAt = readAt;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Reads the version again once the transaction which bumped it has completed, whether committed or rolled back.
+     */
+    private class BumpedVersion implements TransactionSynchronization {
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CatalogVersion.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CatalogVersion.this, Boolean.TRUE);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersion.this);
+            refresh();
+        }
+    }
+}
@@ -1,77 +1,213 @@
 package com.smartiq.pim.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.netflix.discovery.shared.Application;
 import com.smartiq.pim.config.ApplicationProperties;
-import com.smartiq.pim.domain.Order;
-import com.smartiq.pim.domain.enumeration.OrderStatus;
-import com.smartiq.pim.service.dto.CreateOrderManagementDTO;
-import com.squareup.okhttp.MediaType;
-import com.squareup.okhttp.OkHttpClient;
-import com.squareup.okhttp.Request;
-import com.squareup.okhttp.RequestBody;
-import com.squareup.okhttp.Response;
+import com.smartiq.pim.domain.OmOutboxMessage;
+import com.smartiq.pim.service.dto.OmBatchItemDTO;
+import com.smartiq.pim.service.dto.OmBatchItemResultDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vavr.CheckedFunction0;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
+/**
+ * Client of the Order Management service, sending the calls recorded in the {@link OmOutboxMessage} outbox.
+ * <p>
+ * Calls go through a bulkhead and a circuit breaker: when the Order Management service is saturated or failing,
+ * further calls are rejected at once instead of waiting for their timeouts.
+ */
 @Service
-@Transactional
 public class OmIntegrationService {
 
+    /**
+     * Header carrying the key of a message, so that the Order Management service can ignore the retries of a call it already handled.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String RESILIENCE_NAME = "orderManagement";
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
     private final Logger log = LoggerFactory.getLogger(OmIntegrationService.class);
 
+    private final ApplicationProperties applicationProperties;
+
+    private final OkHttpClient omHttpClient;
+
     private final ObjectMapper objectMapper;
 
-    private final ApplicationProperties applicationProperties;
+    private final CircuitBreaker circuitBreaker;
 
-    public OmIntegrationService(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
-        super();
-        this.objectMapper = objectMapper;
+    private final Bulkhead bulkhead;
+
+    public OmIntegrationService(
+        ApplicationProperties applicationProperties,
+        OkHttpClient omHttpClient,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
+    ) {
         this.applicationProperties = applicationProperties;
-    }
+        this.omHttpClient = omHttpClient;
+        this.objectMapper = objectMapper;
 
-    public void createOrder(Order order, String authTokenHeader) throws IOException {
-        OkHttpClient client = new OkHttpClient();
+        ApplicationProperties.OmClient properties = applicationProperties.getOmClient();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(
+            CircuitBreakerConfig
+                .custom()
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getSlidingWindowSize())
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                // A call refused by Order Management says nothing about its health
+                .ignoreExceptions(RejectedCallException.class)
+                .build()
+        );
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(
+            BulkheadConfig.custom().maxConcurrentCalls(properties.getMaxConcurrentCalls()).maxWaitDuration(Duration.ZERO).build()
+        );
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_NAME);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
 
-        CreateOrderManagementDTO createOrderManagementDTO = new CreateOrderManagementDTO();
-        createOrderManagementDTO.setAddress(order.getAddress());
-        createOrderManagementDTO.setOrderId(order.getId());
-        createOrderManagementDTO.setStatus(OrderStatus.NEW);
+    /**
+     * Send an outbox message to the Order Management service.
+     *
+     * @param message the message to send.
+     * @param authTokenHeader the {@code Authorization} header of the call.
+     * @throws IOException if the call could not be made, or was not successful.
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the circuit breaker is open.
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException if too many calls are in flight.
+     */
+    public void send(OmOutboxMessage message, String authTokenHeader) throws IOException {
+        Request.Builder request = new Request.Builder()
+            .header("Authorization", authTokenHeader)
+            .header(IDEMPOTENCY_KEY_HEADER, message.getIdempotencyKey());
+        switch (message.getType()) {
+            case CREATE_ORDER:
+                request
+                    .url(applicationProperties.getOrderManagementAppLink() + "/api/orders")
+                    .post(RequestBody.create(JSON, message.getPayload()));
+                break;
+            case CANCEL_ORDER:
+                request.url(applicationProperties.getOrderManagementAppLink() + "/api/orders/cancel/" + message.getOrderId());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown message type: " + message.getType());
+        }
 
-        RequestBody body = RequestBody.create(
-            MediaType.parse("application/json"),
-            objectMapper.writeValueAsString(createOrderManagementDTO)
-        );
+        call(request.build(), message.getType() + " of Order " + message.getOrderId());
+    }
 
+    /**
+     * Send outbox messages to the Order Management service in a single call.
+     * <p>
+     * Each message becomes an item of the batch, identified by its idempotency key, and the Order Management service
+     * answers with the outcome of each item.
+     *
+     * @param messages the messages to send.
+     * @param authTokenHeader the {@code Authorization} header of the call.
+     * @return the outcome of the items, by idempotency key.
+     * @throws IOException if the call could not be made, or was not successful.
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the circuit breaker is open.
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException if too many calls are in flight.
+     */
+    public Map<String, OmBatchItemResultDTO> sendBatch(List<OmOutboxMessage> messages, String authTokenHeader) throws IOException {
+        List<OmBatchItemDTO> items = messages.stream().map(this::toBatchItem).collect(Collectors.toList());
         Request request = new Request.Builder()
-            .url(applicationProperties.getOrderManagementAppLink() + "/api/orders")
             .header("Authorization", authTokenHeader)
-            .post(body)
+            .url(applicationProperties.getOrderManagementAppLink() + "/api/orders/batch")
+            .post(RequestBody.create(JSON, objectMapper.writeValueAsBytes(items)))
             .build();
 
-        Response response = client.newCall(request).execute();
-        String result = response.body().string();
-        log.info(result);
-        if (!response.isSuccessful()) throw new RuntimeException("Om service call error");
+        String body = call(request, "batch of " + items.size() + " messages");
+        List<OmBatchItemResultDTO> results = objectMapper.readValue(body, new TypeReference<List<OmBatchItemResultDTO>>() {});
+        return results.stream().collect(Collectors.toMap(OmBatchItemResultDTO::getIdempotencyKey, Function.identity(), (a, b) -> b));
     }
 
-    public void cancelOrder(Long orderId, String authTokenHeader) throws IOException {
-        OkHttpClient client = new OkHttpClient();
+    private OmBatchItemDTO toBatchItem(OmOutboxMessage message) {
+        OmBatchItemDTO item = new OmBatchItemDTO();
+        item.setIdempotencyKey(message.getIdempotencyKey());
+        item.setType(message.getType());
+        item.setOrderId(message.getOrderId());
+        item.setUserLogin(message.getUserLogin());
+        item.setOrder(message.getPayload());
+        return item;
+    }
 
-        Request request = new Request.Builder()
-            .url(applicationProperties.getOrderManagementAppLink() + "/api/orders/cancel/" + orderId)
-            .header("Authorization", authTokenHeader)
-            .build();
+    private String call(Request request, String description) throws IOException {
+        CheckedFunction0<String> call = Bulkhead.decorateCheckedSupplier(
+            bulkhead,
+            CircuitBreaker.decorateCheckedSupplier(circuitBreaker, () -> execute(request, description))
+        );
+        try {
+            return call.apply();
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String execute(Request request, String description) throws IOException {
+        try (Response response = omHttpClient.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            String result = body != null ? body.string() : "";
+            log.debug("Order Management response to {} : {}", description, result);
+            if (isRejection(response.code())) {
+                throw new RejectedCallException(response.code());
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Order Management call failed with status " + response.code());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Whether a status refuses a call for good: a client error, other than a timeout, a rate limit or an
+     * authentication or authorization failure, which come from the credentials rather than from the call and go
+     * away once these are fixed.
+     *
+     * @param status the HTTP status of the call, or of an item of a batch.
+     * @return {@code true} if sending the call again would be refused again.
+     */
+    public static boolean isRejection(int status) {
+        return status >= 400 && status < 500 && status != 401 && status != 403 && status != 408 && status != 429;
+    }
+
+    /**
+     * Thrown when the Order Management service refuses a call with a client error, see {@link #isRejection(int)}.
+     */
+    public static class RejectedCallException extends IOException {
+
+        private static final long serialVersionUID = 1L;
 
-        Response response = client.newCall(request).execute();
-        String result = response.body().string();
-        log.info(result);
-        if (!response.isSuccessful()) throw new RuntimeException("Om service call error");
+        public RejectedCallException(int status) {
+            super("Order Management call was refused with status " + status);
+        }
     }
 }
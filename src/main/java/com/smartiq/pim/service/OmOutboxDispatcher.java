@@ -0,0 +1,300 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.config.Constants;
+import com.smartiq.pim.domain.OmOutboxMessage;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageStatus;
+import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.security.AuthorityRegistry;
+import com.smartiq.pim.security.jwt.TokenProvider;
+import com.smartiq.pim.service.dto.OmBatchItemResultDTO;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background sender of the Order Management outbox.
+ * <p>
+ * Due messages are claimed in batches in short transactions, and each call to the Order Management service is
+ * made outside of any transaction, so a slow remote service holds neither request threads nor connections.
+ * Each message is sent on behalf of the user who made the order change, with a token minted for the call and valid
+ * for the call timeout only.
+ */
+@Service
+public class OmOutboxDispatcher {
+
+    public static final String BACKLOG_METER_NAME = "om.outbox.backlog";
+    public static final String LAG_METER_NAME = "om.outbox.lag";
+    public static final String DELIVERIES_METER_NAME = "om.outbox.deliveries";
+    public static final String BATCH_WINDOW_METER_NAME = "om.outbox.batch.window";
+    public static final String BATCH_SIZE_METER_NAME = "om.outbox.batch.size";
+
+    private final Logger log = LoggerFactory.getLogger(OmOutboxDispatcher.class);
+
+    private final OmOutboxService omOutboxService;
+
+    private final OmIntegrationService omIntegrationService;
+
+    private final UserRepository userRepository;
+
+    private final TokenProvider tokenProvider;
+
+    private final ApplicationProperties.OmOutbox properties;
+
+    private final long tokenValidityInMilliseconds;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    private final Timer batchWindowTimer;
+
+    private final DistributionSummary batchSizeSummary;
+
+    public OmOutboxDispatcher(
+        OmOutboxService omOutboxService,
+        OmIntegrationService omIntegrationService,
+        UserRepository userRepository,
+        TokenProvider tokenProvider,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.omOutboxService = omOutboxService;
+        this.omIntegrationService = omIntegrationService;
+        this.userRepository = userRepository;
+        this.tokenProvider = tokenProvider;
+        this.properties = applicationProperties.getOmOutbox();
+        this.tokenValidityInMilliseconds = applicationProperties.getOmClient().getCallTimeout().toMillis();
+
+        Gauge.builder(BACKLOG_METER_NAME, backlog, AtomicLong::get).description("Messages waiting to be sent.").register(registry);
+        Gauge
+            .builder(LAG_METER_NAME, lagSeconds, AtomicLong::get)
+            .baseUnit("seconds")
+            .description("Age of the oldest message waiting to be sent.")
+            .register(registry);
+        this.sentCounter = deliveriesCounter("sent", registry);
+        this.retriedCounter = deliveriesCounter("retried", registry);
+        this.deadCounter = deliveriesCounter("dead", registry);
+        this.batchWindowTimer =
+            Timer
+                .builder(BATCH_WINDOW_METER_NAME)
+                .description("Time the oldest message of a batch waited for the batch to fill up.")
+                .register(registry);
+        this.batchSizeSummary =
+            DistributionSummary.builder(BATCH_SIZE_METER_NAME).description("Messages sent in a batch call.").register(registry);
+    }
+
+    private static Counter deliveriesCounter(String result, MeterRegistry registry) {
+        return Counter
+            .builder(DELIVERIES_METER_NAME)
+            .description("Attempts to send a message to the Order Management service.")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.om-outbox.poll-interval:PT1S}")
+    public void scheduledDispatch() {
+        if (properties.isEnabled()) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Send the due messages, batch after batch, until no full batch is due or the Order Management service is
+     * unavailable. The messages of a batch are sent one by one, or in a single call when batch calls are enabled.
+     *
+     * @return the number of messages attempted.
+     */
+    public int dispatch() {
+        int attempted = properties.getBatch().isEnabled() ? dispatchBatches() : dispatchOneByOne();
+        if (attempted > 0) {
+            log.debug("Attempted to send {} Order Management messages", attempted);
+        }
+        refreshMetrics();
+        return attempted;
+    }
+
+    private int dispatchOneByOne() {
+        int attempted = 0;
+        boolean available = true;
+        List<OmOutboxMessage> batch;
+        do {
+            batch = omOutboxService.claimDueMessages();
+            for (OmOutboxMessage message : batch) {
+                if (available && deliver(message)) {
+                    attempted++;
+                } else {
+                    available = false;
+                    omOutboxService.markPostponed(message.getId(), properties.getInitialBackoff());
+                }
+            }
+        } while (available && batch.size() >= properties.getBatchSize());
+        return attempted;
+    }
+
+    /**
+     * Send the due messages in batch calls. A batch is sent once it is full, or once its oldest message has waited
+     * for the maximum wait.
+     */
+    private int dispatchBatches() {
+        ApplicationProperties.OmOutbox.Batch batchProperties = properties.getBatch();
+        int attempted = 0;
+        Optional<Duration> window;
+        while ((window = batchWindow(batchProperties)).isPresent()) {
+            List<OmOutboxMessage> batch = omOutboxService.claimDueMessages(batchProperties.getMaxSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+            batchWindowTimer.record(window.get());
+            batchSizeSummary.record(batch.size());
+            if (!deliverBatch(batch)) {
+                break;
+            }
+            attempted += batch.size();
+            if (batch.size() < batchProperties.getMaxSize()) {
+                break;
+            }
+        }
+        return attempted;
+    }
+
+    /**
+     * @return how long the oldest due message has been waiting, or empty if no batch should be sent yet.
+     */
+    private Optional<Duration> batchWindow(ApplicationProperties.OmOutbox.Batch batchProperties) {
+        Instant now = Instant.now();
+        return omOutboxService
+            .findEarliestNextAttemptDate()
+            .filter(date -> !date.isAfter(now))
+            .map(date -> Duration.between(date, now))
+            .filter(
+                window -> window.compareTo(batchProperties.getMaxWait()) >= 0 || omOutboxService.countDue() >= batchProperties.getMaxSize()
+            );
+    }
+
+    /**
+     * @return {@code false} if the message was not attempted because the Order Management service is unavailable.
+     */
+    private boolean deliver(OmOutboxMessage message) {
+        try {
+            omIntegrationService.send(message, authorization(message.getUserLogin()));
+            omOutboxService.markSent(message.getId());
+            sentCounter.increment();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.debug("Not sending {} : {}", message, e.getMessage());
+            return false;
+        } catch (OmIntegrationService.RejectedCallException e) {
+            reject(message, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Could not send {} : {}", message, e.getMessage());
+            fail(message, e.toString());
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the batch was not attempted because the Order Management service is unavailable.
+     */
+    private boolean deliverBatch(List<OmOutboxMessage> batch) {
+        Map<String, OmBatchItemResultDTO> results;
+        try {
+            results = omIntegrationService.sendBatch(batch, systemAuthorization());
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.debug("Not sending a batch of {} messages : {}", batch.size(), e.getMessage());
+            batch.forEach(message -> omOutboxService.markPostponed(message.getId(), properties.getInitialBackoff()));
+            return false;
+        } catch (OmIntegrationService.RejectedCallException e) {
+            log.warn("Order Management refused a batch of {} messages : {}", batch.size(), e.getMessage());
+            batch.forEach(message -> reject(message, e.getMessage()));
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not send a batch of {} messages : {}", batch.size(), e.getMessage());
+            batch.forEach(message -> fail(message, e.toString()));
+            return true;
+        }
+        // Each item succeeds or fails on its own
+        for (OmOutboxMessage message : batch) {
+            OmBatchItemResultDTO result = results.get(message.getIdempotencyKey());
+            if (result == null) {
+                fail(message, "Missing from the batch response");
+            } else if (result.isSuccessful()) {
+                omOutboxService.markSent(message.getId());
+                sentCounter.increment();
+            } else if (OmIntegrationService.isRejection(result.getStatus())) {
+                reject(message, "Refused with status " + result.getStatus() + " : " + result.getError());
+            } else {
+                fail(message, "Failed with status " + result.getStatus() + " : " + result.getError());
+            }
+        }
+        return true;
+    }
+
+    private void fail(OmOutboxMessage message, String error) {
+        omOutboxService
+            .markFailed(message.getId(), error)
+            .ifPresent(status -> (status == OmOutboxMessageStatus.DEAD ? deadCounter : retriedCounter).increment());
+    }
+
+    private void reject(OmOutboxMessage message, String error) {
+        omOutboxService.markDead(message.getId(), error).ifPresent(status -> deadCounter.increment());
+    }
+
+    /**
+     * A batch mixes the messages of several users, so it is sent on behalf of the system, each item naming its user.
+     * The token only carries the {@link AuthoritiesConstants#OM_BATCH_CLIENT} authority, so that a captured token grants
+     * no administration right here, and expires with the call.
+     */
+    private String systemAuthorization() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromNames(List.of(AuthoritiesConstants.OM_BATCH_CLIENT));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(Constants.SYSTEM, null, authorities);
+        return "Bearer " + tokenProvider.createToken(authentication, tokenValidityInMilliseconds);
+    }
+
+    private String authorization(String login) {
+        User user = userRepository
+            .findOneWithAuthoritiesByLogin(login)
+            .orElseThrow(() -> new IllegalStateException("User " + login + " was not found in the database"));
+        List<GrantedAuthority> authorities = user
+            .getAuthorities()
+            .stream()
+            .map(authority -> new SimpleGrantedAuthority(authority.getName()))
+            .collect(Collectors.toList());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(login, null, authorities);
+        return "Bearer " + tokenProvider.createToken(authentication, tokenValidityInMilliseconds);
+    }
+
+    private void refreshMetrics() {
+        backlog.set(omOutboxService.countPending());
+        lagSeconds.set(
+            omOutboxService
+                .findOldestPendingCreatedDate()
+                .map(createdDate -> Math.max(0, Duration.between(createdDate, Instant.now()).getSeconds()))
+                .orElse(0L)
+        );
+    }
+}
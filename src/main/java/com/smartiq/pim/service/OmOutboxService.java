@@ -0,0 +1,234 @@
+package com.smartiq.pim.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.OmOutboxMessage;
+import com.smartiq.pim.domain.Order;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageStatus;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageType;
+import com.smartiq.pim.domain.enumeration.OrderStatus;
+import com.smartiq.pim.repository.OmOutboxMessageRepository;
+import com.smartiq.pim.security.SecurityUtils;
+import com.smartiq.pim.service.dto.CreateOrderManagementDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for the Order Management outbox: the calls to the Order Management service are recorded as
+ * {@link OmOutboxMessage}s in the transaction of the order change, then claimed and completed by the
+ * {@link OmOutboxDispatcher}.
+ */
+@Service
+@Transactional
+public class OmOutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(OmOutboxService.class);
+
+    private final OmOutboxMessageRepository omOutboxMessageRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.OmOutbox properties;
+
+    private final ApplicationProperties.OmClient clientProperties;
+
+    public OmOutboxService(
+        OmOutboxMessageRepository omOutboxMessageRepository,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.omOutboxMessageRepository = omOutboxMessageRepository;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getOmOutbox();
+        this.clientProperties = applicationProperties.getOmClient();
+    }
+
+    /**
+     * Record the creation of an order, with its address as it is now.
+     * <p>
+     * Like the other messages, it will be sent on behalf of the current user, or of the user of the order when
+     * there is no current user.
+     *
+     * @param order the created order.
+     * @return the recorded message.
+     */
+    public OmOutboxMessage enqueueCreateOrder(Order order) {
+        CreateOrderManagementDTO createOrderManagementDTO = new CreateOrderManagementDTO();
+        createOrderManagementDTO.setAddress(order.getAddress());
+        createOrderManagementDTO.setOrderId(order.getId());
+        createOrderManagementDTO.setStatus(OrderStatus.NEW);
+        try {
+            return enqueue(OmOutboxMessageType.CREATE_ORDER, order, objectMapper.writeValueAsString(createOrderManagementDTO));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the creation of Order " + order.getId(), e);
+        }
+    }
+
+    /**
+     * Record the cancellation of an order.
+     *
+     * @param order the cancelled order.
+     * @return the recorded message.
+     */
+    public OmOutboxMessage enqueueCancelOrder(Order order) {
+        return enqueue(OmOutboxMessageType.CANCEL_ORDER, order, null);
+    }
+
+    private OmOutboxMessage enqueue(OmOutboxMessageType type, Order order, String payload) {
+        log.debug("Request to record {} of Order : {}", type, order.getId());
+        Instant now = Instant.now();
+        OmOutboxMessage message = new OmOutboxMessage()
+            .idempotencyKey(UUID.randomUUID().toString())
+            .type(type)
+            .orderId(order.getId())
+            .userLogin(SecurityUtils.getCurrentUserLogin().orElseGet(() -> order.getUser().getLogin()))
+            .payload(payload)
+            .status(OmOutboxMessageStatus.PENDING)
+            .attempts(0)
+            .nextAttemptDate(now)
+            .createdDate(now);
+        return omOutboxMessageRepository.save(message);
+    }
+
+    /**
+     * Claim a batch of due messages, to be sent one by one: each one is counted as attempted and reserved for the
+     * lease duration, plus the time the calls up to its own may take, so that it is retried if the dispatcher stops
+     * before completing it but not while it is still being sent.
+     *
+     * @return the claimed messages, oldest first.
+     */
+    public List<OmOutboxMessage> claimDueMessages() {
+        return claim(properties.getBatchSize(), true);
+    }
+
+    /**
+     * Claim at most {@code limit} due messages, to be sent in a single call.
+     *
+     * @param limit the maximum number of messages to claim.
+     * @return the claimed messages, oldest first.
+     * @see #claimDueMessages()
+     */
+    public List<OmOutboxMessage> claimDueMessages(int limit) {
+        return claim(limit, false);
+    }
+
+    private List<OmOutboxMessage> claim(int limit, boolean oneByOne) {
+        Instant now = Instant.now();
+        List<OmOutboxMessage> messages = omOutboxMessageRepository.findDueForUpdate(now, PageRequest.of(0, limit));
+        Instant leaseEnd = now.plus(properties.getLease());
+        for (int i = 0; i < messages.size(); i++) {
+            Duration calls = clientProperties.getCallTimeout().multipliedBy(oneByOne ? i + 1 : 1);
+            OmOutboxMessage message = messages.get(i);
+            message.attempts(message.getAttempts() + 1).nextAttemptDate(leaseEnd.plus(calls));
+        }
+        return messages;
+    }
+
+    public void markSent(Long id) {
+        omOutboxMessageRepository
+            .findById(id)
+            .ifPresent(message -> message.status(OmOutboxMessageStatus.SENT).sentDate(Instant.now()).lastError(null));
+    }
+
+    /**
+     * Schedule the retry of a message which could not be sent, or give up on it after the maximum number of attempts.
+     *
+     * @param id the id of the message.
+     * @param error the reason of the failure.
+     * @return the new status of the message.
+     */
+    public Optional<OmOutboxMessageStatus> markFailed(Long id, String error) {
+        return omOutboxMessageRepository
+            .findById(id)
+            .map(message -> {
+                message.lastError(StringUtils.abbreviate(error, 255));
+                if (message.getAttempts() >= properties.getMaxAttempts()) {
+                    log.warn("Giving up on {} after {} attempts : {}", message, message.getAttempts(), error);
+                    message.status(OmOutboxMessageStatus.DEAD);
+                } else {
+                    message.nextAttemptDate(Instant.now().plus(backoff(message.getAttempts())));
+                }
+                return message.getStatus();
+            });
+    }
+
+    /**
+     * Give up on a message refused by the Order Management service, which would refuse it again.
+     *
+     * @param id the id of the message.
+     * @param error the reason of the refusal.
+     * @return the new status of the message.
+     */
+    public Optional<OmOutboxMessageStatus> markDead(Long id, String error) {
+        return omOutboxMessageRepository
+            .findById(id)
+            .map(message -> {
+                log.warn("Giving up on {}, refused by Order Management : {}", message, error);
+                return message.lastError(StringUtils.abbreviate(error, 255)).status(OmOutboxMessageStatus.DEAD).getStatus();
+            });
+    }
+
+    /**
+     * Give back a message which was not sent because the Order Management service is known to be unavailable: the
+     * attempt is not counted.
+     *
+     * @param id the id of the message.
+     * @param delay the delay before the next attempt.
+     */
+    public void markPostponed(Long id, Duration delay) {
+        omOutboxMessageRepository
+            .findById(id)
+            .ifPresent(message -> message.attempts(message.getAttempts() - 1).nextAttemptDate(Instant.now().plus(delay)));
+    }
+
+    /**
+     * Get the delay before the next attempt: the initial backoff doubled after each attempt, up to the maximum
+     * backoff, and randomized down to half of it so that failed messages do not all come back at once.
+     *
+     * @param attempts the number of attempts made so far.
+     * @return the delay.
+     */
+    Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        long backoff = Math.min(max, initial << doublings);
+        return Duration.ofMillis(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+    }
+
+    @Transactional(readOnly = true)
+    public long countDue() {
+        return omOutboxMessageRepository.countByStatusAndNextAttemptDateLessThanEqual(OmOutboxMessageStatus.PENDING, Instant.now());
+    }
+
+    /**
+     * Get the date since which the longest waiting pending message is due.
+     *
+     * @return the date, in the future if no message is due yet, or empty if no message is pending.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Instant> findEarliestNextAttemptDate() {
+        return Optional.ofNullable(omOutboxMessageRepository.findEarliestNextAttemptDateByStatus(OmOutboxMessageStatus.PENDING));
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return omOutboxMessageRepository.countByStatus(OmOutboxMessageStatus.PENDING);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Instant> findOldestPendingCreatedDate() {
+        return Optional.ofNullable(omOutboxMessageRepository.findOldestCreatedDateByStatus(OmOutboxMessageStatus.PENDING));
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartiq.pim.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.smartiq.pim.domain.Order;
+import com.smartiq.pim.repository.OrderRepository;
+import com.smartiq.pim.service.dto.OrderExportDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class exporting all the {@link Order}s as newline-delimited JSON.
+ * <p>
+ * Orders are read from a database cursor as {@link OrderExportDTO}s, built from the columns of each row and written
+ * one by one: no entity is loaded nor kept by the persistence context, so exporting takes a single query and the
+ * memory used does not depend on the number of orders.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderExportService {
+
+    private static final byte[] LINE_SEPARATOR = { '\n' };
+
+    private final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+
+    private final OrderRepository orderRepository;
+
+    private final ObjectWriter objectWriter;
+
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.objectWriter = objectMapper.writerFor(OrderExportDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Write all the orders to the given stream, one JSON document per line.
+     *
+     * @param out the stream to write to, left open.
+     * @return the number of exported orders.
+     */
+    public long exportOrders(OutputStream out) {
+        log.debug("Request to export all Orders");
+        long count = 0;
+        try (Stream<OrderExportDTO> orders = orderRepository.streamAllForExport()) {
+            Iterator<OrderExportDTO> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                objectWriter.writeValue(out, iterator.next());
+                out.write(LINE_SEPARATOR);
+                if (++count % OrderRepository.EXPORT_FETCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Exported {} Orders", count);
+        return count;
+    }
+}
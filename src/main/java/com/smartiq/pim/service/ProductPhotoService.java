@@ -0,0 +1,114 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.ProductPhoto;
+import com.smartiq.pim.repository.ProductPhotoMetadata;
+import com.smartiq.pim.repository.ProductPhotoRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for storing and streaming {@link ProductPhoto}s.
+ */
+@Service
+@Transactional
+public class ProductPhotoService {
+
+    private final Logger log = LoggerFactory.getLogger(ProductPhotoService.class);
+
+    private final ProductPhotoRepository productPhotoRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductPhotoService(ProductPhotoRepository productPhotoRepository, JdbcTemplate jdbcTemplate) {
+        this.productPhotoRepository = productPhotoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores the photo carried by a create or update request.
+     *
+     * @param product the saved product, its content type is kept in sync with the stored photo.
+     * @param photo the image received with the request, {@code null} if the request did not send one.
+     * @param replace {@code true} for a full update: a request without photo nor content type removes the stored photo.
+     */
+    public void savePhoto(Product product, byte[] photo, boolean replace) {
+        if (photo != null) {
+            log.debug("Request to save photo of Product : {}", product.getId());
+            if (product.getPhotoContentType() == null) {
+                product.setPhotoContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            }
+            ProductPhoto productPhoto = productPhotoRepository
+                .findById(product.getId())
+                .orElseGet(() -> new ProductPhoto().productId(product.getId()));
+            productPhoto
+                .data(photo)
+                .contentType(product.getPhotoContentType())
+                .dataSize((long) photo.length)
+                .lastModifiedDate(Instant.now());
+            productPhotoRepository.save(productPhoto);
+            product.setPhoto(null);
+        } else if (replace && product.getPhotoContentType() == null) {
+            deletePhoto(product.getId());
+        }
+    }
+
+    /**
+     * Get the metadata of the photo of a product, without loading the image itself.
+     *
+     * @param productId the id of the product.
+     * @return the metadata, empty if the product has no photo.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProductPhotoMetadata> findMetadata(Long productId) {
+        return productPhotoRepository.findMetadataByProductId(productId);
+    }
+
+    /**
+     * Copy the image of a product to the given stream, reading it straight from the JDBC result set.
+     * <p>
+     * The size is read from the same row as the image, so that it matches the bytes written even when the photo is
+     * replaced concurrently.
+     *
+     * @param productId the id of the product.
+     * @param contentLength called with the size of the image, before it is written.
+     * @param out the stream to write to.
+     * @return {@code false} if the product has no photo.
+     */
+    @Transactional(readOnly = true)
+    public boolean writePhoto(Long productId, LongConsumer contentLength, OutputStream out) {
+        Boolean found = jdbcTemplate.query(
+            "select data_size, data from product_photo where product_id = ?",
+            rs -> {
+                if (!rs.next()) {
+                    return false;
+                }
+                contentLength.accept(rs.getLong(1));
+                try (InputStream in = rs.getBinaryStream(2)) {
+                    in.transferTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            },
+            productId
+        );
+        return Boolean.TRUE.equals(found);
+    }
+
+    public void deletePhoto(Long productId) {
+        log.debug("Request to delete photo of Product : {}", productId);
+        productPhotoRepository.deleteByProductId(productId);
+    }
+}
@@ -0,0 +1,188 @@
+package com.smartiq.pim.service;
+
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.Authority;
+import com.smartiq.pim.domain.RefreshToken;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.repository.RefreshTokenRepository;
+import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.security.AuthorityRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for managing the refresh tokens.
+ * <p>
+ * Refreshing a token costs one indexed lookup of its digest, instead of loading its user and checking their password.
+ * Each refresh token is exchanged once: it is revoked and replaced by a new one. When a revoked token is presented
+ * again, it was stolen or leaked, so all the tokens of its user are revoked.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.RefreshToken properties;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.properties = applicationProperties.getRefreshToken();
+    }
+
+    /**
+     * Create a refresh token for a user who just logged in.
+     *
+     * @param login the login of the user.
+     * @return the refresh token, or empty if there is no such user.
+     */
+    public Optional<String> createToken(String login) {
+        return userRepository.findOneByLogin(login).map(this::createToken);
+    }
+
+    private String createToken(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+        refreshTokenRepository.save(
+            new RefreshToken().tokenHash(digest(token)).user(user).createdDate(now).expiryDate(now.plus(properties.getValidity()))
+        );
+        return token;
+    }
+
+    /**
+     * Exchange a refresh token for the authentication of its user and a new refresh token.
+     *
+     * @param token the refresh token.
+     * @return the authentication and the new refresh token, or empty if the token is unknown, revoked or expired, or
+     * if its user is no longer activated.
+     */
+    public Optional<Refresh> refresh(String token) {
+        Optional<RefreshToken> refreshToken = refreshTokenRepository.findOneWithUserByTokenHash(digest(token));
+        if (refreshToken.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken current = refreshToken.get();
+        User user = current.getUser();
+        if (current.getExpiryDate().isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        // The token is revoked by a conditional update, so that two concurrent refreshes cannot both exchange it
+        if (current.getRevoked() || refreshTokenRepository.revokeById(current.getId()) == 0) {
+            log.warn("Reuse of a revoked refresh token of {}, revoking all of their refresh tokens", user.getLogin());
+            refreshTokenRepository.revokeByUser(user);
+            return Optional.empty();
+        }
+        if (!user.isActivated()) {
+            return Optional.empty();
+        }
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromNames(
+            user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toList())
+        );
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+            user.getLogin(),
+            "",
+            authorities
+        );
+        return Optional.of(new Refresh(new UsernamePasswordAuthenticationToken(principal, null, authorities), createToken(user)));
+    }
+
+    /**
+     * Revoke a refresh token, as on logout.
+     *
+     * @param token the refresh token.
+     */
+    public void revokeToken(String token) {
+        refreshTokenRepository.findOneWithUserByTokenHash(digest(token)).ifPresent(refreshToken -> refreshToken.setRevoked(true));
+    }
+
+    /**
+     * Revoke all the refresh tokens of a user, as when their password changes.
+     *
+     * @param user the user.
+     */
+    public void revokeTokens(User user) {
+        refreshTokenRepository.revokeByUser(user);
+    }
+
+    /**
+     * Delete all the refresh tokens of a user, before the user is deleted.
+     *
+     * @param user the user.
+     */
+    public void deleteTokens(User user) {
+        refreshTokenRepository.deleteByUser(user);
+    }
+
+    /**
+     * Expired refresh tokens are deleted, whether they were revoked or not.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteByExpiryDateBefore(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Result of the exchange of a refresh token.
+     */
+    public static class Refresh {
+
+        private final Authentication authentication;
+
+        private final String refreshToken;
+
+        Refresh(Authentication authentication, String refreshToken) {
+            this.authentication = authentication;
+            this.refreshToken = refreshToken;
+        }
+
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
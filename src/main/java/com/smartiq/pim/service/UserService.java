@@ -9,6 +9,7 @@ import com.smartiq.pim.security.AuthoritiesConstants;
 import com.smartiq.pim.security.SecurityUtils;
 import com.smartiq.pim.service.dto.AdminUserDTO;
 import com.smartiq.pim.service.dto.UserDTO;
+import com.smartiq.pim.service.invalidation.CacheInvalidationService;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -41,16 +42,24 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final RefreshTokenService refreshTokenService;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        RefreshTokenService refreshTokenService,
+        CacheInvalidationService cacheInvalidationService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.refreshTokenService = refreshTokenService;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -76,6 +85,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                refreshTokenService.revokeTokens(user);
                 this.clearUserCaches(user);
                 return user;
             });
@@ -222,6 +232,7 @@ public class UserService {
         userRepository
             .findOneByLogin(login)
             .ifPresent(user -> {
+                refreshTokenService.deleteTokens(user);
                 userRepository.delete(user);
                 this.clearUserCaches(user);
                 log.debug("Deleted User: {}", user);
@@ -266,6 +277,7 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                refreshTokenService.revokeTokens(user);
                 this.clearUserCaches(user);
                 log.debug("Changed password for User: {}", user);
             });
@@ -318,8 +330,10 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        cacheInvalidationService.evictOnPeers(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            cacheInvalidationService.evictOnPeers(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
         }
     }
 }
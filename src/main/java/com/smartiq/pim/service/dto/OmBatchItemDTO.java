@@ -0,0 +1,62 @@
+package com.smartiq.pim.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageType;
+
+/**
+ * An item of a batch sent to the Order Management service.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OmBatchItemDTO {
+
+    private String idempotencyKey;
+    private OmOutboxMessageType type;
+    private Long orderId;
+    private String userLogin;
+    private String order;
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public OmOutboxMessageType getType() {
+        return type;
+    }
+
+    public void setType(OmOutboxMessageType type) {
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    public void setUserLogin(String userLogin) {
+        this.userLogin = userLogin;
+    }
+
+    /**
+     * The {@link CreateOrderManagementDTO} of a created order, already serialized.
+     */
+    @JsonRawValue
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
+}
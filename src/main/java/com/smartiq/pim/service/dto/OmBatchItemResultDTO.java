@@ -0,0 +1,42 @@
+package com.smartiq.pim.service.dto;
+
+/**
+ * The outcome of an item of a batch, as answered by the Order Management service.
+ */
+public class OmBatchItemResultDTO {
+
+    private String idempotencyKey;
+    private int status;
+    private String error;
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    /**
+     * The HTTP status the item would have had as a single call.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
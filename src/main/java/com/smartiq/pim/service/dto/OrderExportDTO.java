@@ -0,0 +1,182 @@
+package com.smartiq.pim.service.dto;
+
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import com.smartiq.pim.domain.enumeration.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing an order in the export, with its user, basket and address flattened into it. It is read
+ * straight from the columns of a row, so that exporting an order neither loads nor manages any entity.
+ */
+public class OrderExportDTO {
+
+    private Long id;
+
+    private LocalDate createDate;
+
+    private OrderStatus status;
+
+    private Long userId;
+
+    private String userLogin;
+
+    private Long basketId;
+
+    private BasketStatus basketStatus;
+
+    private BigDecimal basketTotalCost;
+
+    private Long addressId;
+
+    private String addressName;
+
+    private String addressCity;
+
+    private String addressDistrict;
+
+    private String addressDetails;
+
+    public OrderExportDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    // prettier-ignore
+    public OrderExportDTO(
+        Long id, LocalDate createDate, OrderStatus status,
+        Long userId, String userLogin,
+        Long basketId, BasketStatus basketStatus, BigDecimal basketTotalCost,
+        Long addressId, String addressName, String addressCity, String addressDistrict, String addressDetails
+    ) {
+        this.id = id;
+        this.createDate = createDate;
+        this.status = status;
+        this.userId = userId;
+        this.userLogin = userLogin;
+        this.basketId = basketId;
+        this.basketStatus = basketStatus;
+        this.basketTotalCost = basketTotalCost;
+        this.addressId = addressId;
+        this.addressName = addressName;
+        this.addressCity = addressCity;
+        this.addressDistrict = addressDistrict;
+        this.addressDetails = addressDetails;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getCreateDate() {
+        return createDate;
+    }
+
+    public void setCreateDate(LocalDate createDate) {
+        this.createDate = createDate;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    public void setUserLogin(String userLogin) {
+        this.userLogin = userLogin;
+    }
+
+    public Long getBasketId() {
+        return basketId;
+    }
+
+    public void setBasketId(Long basketId) {
+        this.basketId = basketId;
+    }
+
+    public BasketStatus getBasketStatus() {
+        return basketStatus;
+    }
+
+    public void setBasketStatus(BasketStatus basketStatus) {
+        this.basketStatus = basketStatus;
+    }
+
+    public BigDecimal getBasketTotalCost() {
+        return basketTotalCost;
+    }
+
+    public void setBasketTotalCost(BigDecimal basketTotalCost) {
+        this.basketTotalCost = basketTotalCost;
+    }
+
+    public Long getAddressId() {
+        return addressId;
+    }
+
+    public void setAddressId(Long addressId) {
+        this.addressId = addressId;
+    }
+
+    public String getAddressName() {
+        return addressName;
+    }
+
+    public void setAddressName(String addressName) {
+        this.addressName = addressName;
+    }
+
+    public String getAddressCity() {
+        return addressCity;
+    }
+
+    public void setAddressCity(String addressCity) {
+        this.addressCity = addressCity;
+    }
+
+    public String getAddressDistrict() {
+        return addressDistrict;
+    }
+
+    public void setAddressDistrict(String addressDistrict) {
+        this.addressDistrict = addressDistrict;
+    }
+
+    public String getAddressDetails() {
+        return addressDetails;
+    }
+
+    public void setAddressDetails(String addressDetails) {
+        this.addressDetails = addressDetails;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderExportDTO{" +
+            "id=" + getId() +
+            ", createDate='" + getCreateDate() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", userId=" + getUserId() +
+            ", basketId=" + getBasketId() +
+            ", addressId=" + getAddressId() +
+            "}";
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartiq.pim.service.dto;
+
+import com.smartiq.pim.domain.Product;
+
+/**
+ * A DTO representing a product in the catalog listing. The photo is only referenced by its URL.
+ */
+public class ProductListDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private Double price;
+
+    private Integer stock;
+
+    private String photoUrl;
+
+    private String photoContentType;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    public ProductListDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ProductListDTO(Product product) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        this.price = product.getPrice();
+        this.stock = product.getStock();
+        this.photoContentType = product.getPhotoContentType();
+        if (product.getPhotoContentType() != null) {
+            this.photoUrl = photoUrl(product.getId());
+        }
+        if (product.getCategory() != null) {
+            this.categoryId = product.getCategory().getId();
+            this.categoryName = product.getCategory().getName();
+        }
+    }
+
+    /**
+     * The URL of the endpoint serving the photo of a product.
+     *
+     * @param productId the id of the product.
+     * @return the URL, relative to the server root.
+     */
+    public static String photoUrl(Long productId) {
+        return "/api/products/" + productId + "/photo";
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    public void setPhotoUrl(String photoUrl) {
+        this.photoUrl = photoUrl;
+    }
+
+    public String getPhotoContentType() {
+        return photoContentType;
+    }
+
+    public void setPhotoContentType(String photoContentType) {
+        this.photoContentType = photoContentType;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductListDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", price=" + getPrice() +
+            ", stock=" + getStock() +
+            ", photoUrl='" + getPhotoUrl() + "'" +
+            ", photoContentType='" + getPhotoContentType() + "'" +
+            ", categoryId=" + getCategoryId() +
+            "}";
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartiq.pim.service.event;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Published when Hibernate writes an insert, update or delete of an entity, whichever code path
+ * triggered it. The event is raised during the flush, before the transaction completes.
+ */
+public class EntityChangedEvent {
+
+    public enum ChangeType {
+        INSERT,
+        UPDATE,
+        DELETE,
+    }
+
+    private final Class<?> entityClass;
+
+    private final Serializable entityId;
+
+    private final ChangeType changeType;
+
+    private final Set<String> changedProperties;
+
+    private final Object entity;
+
+    public EntityChangedEvent(Class<?> entityClass, Serializable entityId, ChangeType changeType, Set<String> changedProperties) {
+        this(entityClass, entityId, changeType, changedProperties, null);
+    }
+
+    public EntityChangedEvent(
+        Class<?> entityClass,
+        Serializable entityId,
+        ChangeType changeType,
+        Set<String> changedProperties,
+        Object entity
+    ) {
+        this.entityClass = entityClass;
+        this.entityId = entityId;
+        this.changeType = changeType;
+        this.changedProperties = Collections.unmodifiableSet(changedProperties);
+        this.entity = entity;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public Serializable getEntityId() {
+        return entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * @return the names of the properties modified by an update, empty for inserts and deletes.
+     */
+    public Set<String> getChangedProperties() {
+        return changedProperties;
+    }
+
+    /**
+     * @return the written entity, in its state after the change; it must not be modified.
+     */
+    public Object getEntity() {
+        return entity;
+    }
+
+    public boolean isAbout(Class<?> type) {
+        return type.isAssignableFrom(entityClass);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityChangedEvent{" +
+            "entityClass=" + entityClass.getSimpleName() +
+            ", entityId=" + entityId +
+            ", changeType=" + changeType +
+            ", changedProperties=" + changedProperties +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Application events.
+ */
+package com.smartiq.pim.service.event;
@@ -0,0 +1,173 @@
+package com.smartiq.pim.service.invalidation;
+
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Invalidation sent to the other instances of the application: either the change of a cached entity, the eviction of
+ * the whole region of an entity, or the eviction of a key of a Spring cache.
+ */
+public class CacheInvalidation {
+
+    private String origin;
+
+    private String entityName;
+
+    private Long entityId;
+
+    private ChangeType changeType;
+
+    private Set<String> changedProperties = Collections.emptySet();
+
+    private String cacheName;
+
+    private String key;
+
+    public static CacheInvalidation ofEntity(
+        String origin,
+        String entityName,
+        Long entityId,
+        ChangeType changeType,
+        Set<String> changedProperties
+    ) {
+        CacheInvalidation invalidation = new CacheInvalidation();
+        invalidation.setOrigin(origin);
+        invalidation.setEntityName(entityName);
+        invalidation.setEntityId(entityId);
+        invalidation.setChangeType(changeType);
+        invalidation.setChangedProperties(changedProperties);
+        return invalidation;
+    }
+
+    /**
+     * Create the eviction of all the cached entities of a type, for changes made by bulk statements.
+     *
+     * @param origin the instance sending the invalidation.
+     * @param entityName the Hibernate entity name of the entities.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation ofEntityRegion(String origin, String entityName) {
+        CacheInvalidation invalidation = new CacheInvalidation();
+        invalidation.setOrigin(origin);
+        invalidation.setEntityName(entityName);
+        return invalidation;
+    }
+
+    public static CacheInvalidation ofCacheKey(String origin, String cacheName, String key) {
+        CacheInvalidation invalidation = new CacheInvalidation();
+        invalidation.setOrigin(origin);
+        invalidation.setCacheName(cacheName);
+        invalidation.setKey(key);
+        return invalidation;
+    }
+
+    /**
+     * @return the instance which sent the invalidation.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * @return the Hibernate entity name of the changed or evicted entities, or {@code null} for the eviction of a cache
+     * key.
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Set<String> getChangedProperties() {
+        return changedProperties;
+    }
+
+    public void setChangedProperties(Set<String> changedProperties) {
+        this.changedProperties = changedProperties == null ? Collections.emptySet() : changedProperties;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public boolean isEntityChange() {
+        return entityName != null && entityId != null;
+    }
+
+    public boolean isEntityRegionEviction() {
+        return entityName != null && entityId == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return (
+            Objects.equals(origin, that.origin) &&
+            Objects.equals(entityName, that.entityName) &&
+            Objects.equals(entityId, that.entityId) &&
+            changeType == that.changeType &&
+            Objects.equals(changedProperties, that.changedProperties) &&
+            Objects.equals(cacheName, that.cacheName) &&
+            Objects.equals(key, that.key)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(origin, entityName, entityId, changeType, changedProperties, cacheName, key);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "origin=" + origin +
+            (entityName != null
+                ? ", entityName=" + entityName + ", entityId=" + entityId + ", changeType=" + changeType +
+                    ", changedProperties=" + changedProperties
+                : ", cacheName=" + cacheName + ", key=" + key) +
+            "}";
+    }
+}
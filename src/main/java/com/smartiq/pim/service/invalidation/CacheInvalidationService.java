@@ -0,0 +1,322 @@
+package com.smartiq.pim.service.invalidation;
+
+import com.smartiq.pim.domain.Category;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.service.CatalogPageCache;
+import com.smartiq.pim.service.CatalogVersion;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the caches of the other instances of the application coherent with the changes made by this one, see
+ * {@link CacheInvalidationTransport}.
+ * <p>
+ * The changes of the entities of the second level cache, and the evictions requested by {@link #evictOnPeers}, are
+ * collected during their transaction and sent in one batch once it has committed; nothing is sent for a rollback.
+ * The receiving instances evict the entity and the collections it may belong to from their second level cache, the
+ * cached query results reading its tables, the catalog pages listing it, and the evicted keys from their Spring caches.
+ * A changed product or category also makes them read the {@link CatalogVersion} bumped by the sender again.
+ * Bulk statements publish no entity change: their callers evict whole regions with {@link #evictEntityRegions}.
+ */
+@Service
+public class CacheInvalidationService {
+
+    public static final String MESSAGES_METER_NAME = "cache.invalidation.messages";
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final CacheInvalidationTransport transport;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheManager cacheManager;
+
+    private final CatalogPageCache catalogPageCache;
+
+    private final CatalogVersion catalogVersion;
+
+    private final Consumer<List<CacheInvalidation>> receiver = this::receive;
+
+    private final Counter receivedCounter;
+
+    public CacheInvalidationService(
+        CacheInvalidationTransport transport,
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        CatalogPageCache catalogPageCache,
+        CatalogVersion catalogVersion,
+        MeterRegistry registry
+    ) {
+        this.transport = transport;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = cacheManager;
+        this.catalogPageCache = catalogPageCache;
+        this.catalogVersion = catalogVersion;
+        this.receivedCounter = messagesCounter("received", registry);
+        transport.subscribe(receiver);
+    }
+
+    public static Counter messagesCounter(String result, MeterRegistry registry) {
+        return Counter
+            .builder(MESSAGES_METER_NAME)
+            .description("Cache invalidations exchanged with the other instances.")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        transport.unsubscribe(receiver);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (
+            !event.getEntityClass().isAnnotationPresent(org.hibernate.annotations.Cache.class) || !(event.getEntityId() instanceof Long)
+        ) {
+            return;
+        }
+        send(
+            CacheInvalidation.ofEntity(
+                origin,
+                event.getEntityClass().getName(),
+                (Long) event.getEntityId(),
+                event.getChangeType(),
+                event.getChangedProperties()
+            )
+        );
+    }
+
+    /**
+     * Evict a key of a Spring cache from the other instances, once the current transaction, if any, has committed.
+     * The caller evicts it from the cache of this instance.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key to evict.
+     */
+    public void evictOnPeers(String cacheName, String key) {
+        send(CacheInvalidation.ofCacheKey(origin, cacheName, key));
+    }
+
+    /**
+     * Evict all the entities of the given types, the collections they own or belong to, and the cached query results
+     * reading their tables, from the second level cache of this instance and of the others.
+     * <p>
+     * Call it once the bulk statements changing these entities have committed, as they publish no entity change.
+     *
+     * @param entityClasses the types of the changed entities.
+     */
+    public void evictEntityRegions(Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            EntityPersister persister = sessionFactory.getMetamodel().entityPersister(entityClass);
+            evictEntityRegion(persister);
+            send(CacheInvalidation.ofEntityRegion(origin, persister.getEntityName()));
+        }
+    }
+
+    private void send(CacheInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendNow(List.of(invalidation));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<CacheInvalidation> pending = (Set<CacheInvalidation>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new PendingInvalidations(pending));
+        }
+        pending.add(invalidation);
+    }
+
+    private void sendNow(List<CacheInvalidation> invalidations) {
+        log.debug("Sending {} cache invalidations", invalidations.size());
+        try {
+            transport.send(invalidations);
+        } catch (RuntimeException e) {
+            // The change is committed, the caches of the other instances will only be refreshed on expiry
+            log.warn("Could not send {} cache invalidations: {}", invalidations.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the invalidations sent by another instance; the invalidations sent by this one are ignored.
+     *
+     * @param invalidations the invalidations.
+     */
+    public void receive(List<CacheInvalidation> invalidations) {
+        for (CacheInvalidation invalidation : invalidations) {
+            if (origin.equals(invalidation.getOrigin())) {
+                continue;
+            }
+            log.debug("Received {}", invalidation);
+            receivedCounter.increment();
+            if (invalidation.isEntityRegionEviction()) {
+                evictEntityRegion(invalidation);
+            } else if (invalidation.isEntityChange()) {
+                evictEntity(invalidation);
+            } else {
+                evictCacheKey(invalidation);
+            }
+        }
+    }
+
+    private void evictEntity(CacheInvalidation invalidation) {
+        // Only the mapped entities are resolved, no class is loaded from the name
+        EntityPersister persister = sessionFactory.getMetamodel().entityPersisters().get(invalidation.getEntityName());
+        if (persister == null || invalidation.getEntityId() == null || invalidation.getChangeType() == null) {
+            log.warn("Ignoring an invalid cache invalidation: {}", invalidation);
+            return;
+        }
+        String entityName = persister.getEntityName();
+        Long id = invalidation.getEntityId();
+        CacheImplementor cache = sessionFactory.getCache();
+        cache.evictEntityData(entityName, id);
+        invalidateQueryResults(persister);
+        boolean associationsChanged =
+            invalidation.getChangeType() != ChangeType.UPDATE ||
+            invalidation.getChangedProperties().stream().anyMatch(property -> isAssociation(persister, property));
+        for (CollectionPersister collection : sessionFactory.getMetamodel().collectionPersisters().values()) {
+            if (!collection.hasCache()) {
+                continue;
+            }
+            if (entityName.equals(collection.getOwnerEntityPersister().getEntityName())) {
+                cache.evictCollectionData(collection.getRole(), id);
+            } else if (associationsChanged && isCollectionOf(collection, entityName)) {
+                // The owners of the collections the entity joined or left are not known
+                cache.evictCollectionData(collection.getRole());
+            }
+        }
+        EntityChangedEvent event = new EntityChangedEvent(
+            persister.getMappedClass(),
+            id,
+            invalidation.getChangeType(),
+            invalidation.getChangedProperties()
+        );
+        catalogPageCache.onEntityChanged(event);
+        if (event.isAbout(Product.class) || event.isAbout(Category.class)) {
+            // The sender bumped the version in the database before committing its change
+            catalogVersion.refresh();
+        }
+    }
+
+    private void evictEntityRegion(CacheInvalidation invalidation) {
+        EntityPersister persister = sessionFactory.getMetamodel().entityPersisters().get(invalidation.getEntityName());
+        if (persister == null) {
+            log.warn("Ignoring an invalid cache invalidation: {}", invalidation);
+            return;
+        }
+        evictEntityRegion(persister);
+    }
+
+    private void evictEntityRegion(EntityPersister persister) {
+        String entityName = persister.getEntityName();
+        CacheImplementor cache = sessionFactory.getCache();
+        cache.evictEntityData(entityName);
+        invalidateQueryResults(persister);
+        for (CollectionPersister collection : sessionFactory.getMetamodel().collectionPersisters().values()) {
+            if (
+                collection.hasCache() &&
+                (entityName.equals(collection.getOwnerEntityPersister().getEntityName()) || isCollectionOf(collection, entityName))
+            ) {
+                cache.evictCollectionData(collection.getRole());
+            }
+        }
+    }
+
+    private void invalidateQueryResults(EntityPersister persister) {
+        if (sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            // As on a local write: the query results read from the tables of the entity before now are stale
+            try (Session session = sessionFactory.openTemporarySession()) {
+                sessionFactory
+                    .getCache()
+                    .getTimestampsCache()
+                    .invalidate(persister.getQuerySpaces(), (SharedSessionContractImplementor) session);
+            }
+        }
+    }
+
+    private static boolean isAssociation(EntityPersister persister, String property) {
+        try {
+            return persister.getPropertyType(property).isAssociationType();
+        } catch (RuntimeException e) {
+            // Unknown property, the sender runs another version of the entity
+            return true;
+        }
+    }
+
+    private static boolean isCollectionOf(CollectionPersister collection, String entityName) {
+        return (
+            collection.getElementType().isEntityType() &&
+            entityName.equals(((EntityType) collection.getElementType()).getAssociatedEntityName())
+        );
+    }
+
+    private void evictCacheKey(CacheInvalidation invalidation) {
+        Cache cache = invalidation.getCacheName() == null ? null : cacheManager.getCache(invalidation.getCacheName());
+        if (cache == null || invalidation.getKey() == null) {
+            log.warn("Ignoring an invalid cache invalidation: {}", invalidation);
+            return;
+        }
+        cache.evict(invalidation.getKey());
+    }
+
+    /**
+     * Sends the invalidations collected during a transaction once it has committed.
+     */
+    private class PendingInvalidations implements TransactionSynchronization {
+
+        private final Set<CacheInvalidation> invalidations;
+
+        PendingInvalidations(Set<CacheInvalidation> invalidations) {
+            this.invalidations = invalidations;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CacheInvalidationService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CacheInvalidationService.this, invalidations);
+        }
+
+        @Override
+        public void afterCommit() {
+            sendNow(new ArrayList<>(invalidations));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationService.this);
+        }
+    }
+}
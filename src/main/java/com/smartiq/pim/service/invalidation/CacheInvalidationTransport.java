@@ -0,0 +1,26 @@
+package com.smartiq.pim.service.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries the cache invalidations to the other instances of the application.
+ * <p>
+ * A transport which delivers the invalidations itself hands them to its subscribed receivers. The instances reached
+ * through the HTTP transport post them to {@link com.smartiq.pim.web.rest.CacheInvalidationResource} instead, so that
+ * transport has nothing to subscribe.
+ */
+@FunctionalInterface
+public interface CacheInvalidationTransport {
+    /**
+     * Send a batch of invalidations to the other instances. The batch is sent on a best effort basis: the caches of an
+     * instance it does not reach are only refreshed when their entries expire.
+     *
+     * @param invalidations the invalidations.
+     */
+    void send(List<CacheInvalidation> invalidations);
+
+    default void subscribe(Consumer<List<CacheInvalidation>> receiver) {}
+
+    default void unsubscribe(Consumer<List<CacheInvalidation>> receiver) {}
+}
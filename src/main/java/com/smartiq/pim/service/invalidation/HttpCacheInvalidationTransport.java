@@ -0,0 +1,182 @@
+package com.smartiq.pim.service.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.security.AuthorityRegistry;
+import com.smartiq.pim.security.jwt.TokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Transport posting the invalidations to the other instances registered in the discovery service, see
+ * {@link com.smartiq.pim.web.rest.CacheInvalidationResource}.
+ * <p>
+ * The batches are posted by a background thread, so that sending them adds no latency to the requests. The queue of
+ * that thread is bounded: when the instances are too slow to answer, new batches are dropped and counted. Each post is
+ * authenticated by a short-lived token carrying the {@link AuthoritiesConstants#CACHE_PEER} authority.
+ */
+public class HttpCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    public static final String API_PATH = "/api/cache-invalidations";
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private static final String PRINCIPAL = "cache-peer";
+
+    private static final Duration TOKEN_VALIDITY = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(HttpCacheInvalidationTransport.class);
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceId;
+
+    private final String localInstanceId;
+
+    private final TokenProvider tokenProvider;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeout;
+
+    private final OkHttpClient httpClient;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    /**
+     * @param localInstanceId the id of this instance in the discovery service, so that it does not post to itself;
+     * may be {@code null} when the instance is not registered.
+     */
+    public HttpCacheInvalidationTransport(
+        DiscoveryClient discoveryClient,
+        String serviceId,
+        String localInstanceId,
+        TokenProvider tokenProvider,
+        ObjectMapper objectMapper,
+        ApplicationProperties.Cache.Invalidation properties,
+        MeterRegistry registry
+    ) {
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.localInstanceId = localInstanceId;
+        this.tokenProvider = tokenProvider;
+        this.objectMapper = objectMapper;
+        this.timeout = properties.getTimeout();
+        this.httpClient = new OkHttpClient.Builder().callTimeout(timeout).build();
+        this.executor =
+            new ThreadPoolExecutor(
+                1,
+                1,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-invalidation");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+
+        this.sentCounter = CacheInvalidationService.messagesCounter("sent", registry);
+        this.failedCounter = CacheInvalidationService.messagesCounter("failed", registry);
+        this.droppedCounter = CacheInvalidationService.messagesCounter("dropped", registry);
+    }
+
+    @Override
+    public void send(List<CacheInvalidation> invalidations) {
+        try {
+            executor.execute(() -> post(invalidations));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropping {} cache invalidations, the other instances are not keeping up", invalidations.size());
+            droppedCounter.increment(invalidations.size());
+        }
+    }
+
+    private void post(List<CacheInvalidation> invalidations) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        if (instances.stream().allMatch(this::isLocal)) {
+            return;
+        }
+        RequestBody body;
+        try {
+            body = RequestBody.create(JSON, objectMapper.writeValueAsBytes(invalidations));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        String authorization = "Bearer " + tokenProvider.createToken(peerAuthentication(), TOKEN_VALIDITY.toMillis());
+        for (ServiceInstance instance : instances) {
+            if (!isLocal(instance)) {
+                post(instance, body, authorization, invalidations.size());
+            }
+        }
+    }
+
+    private void post(ServiceInstance instance, RequestBody body, String authorization, int count) {
+        String contextPath = instance.getMetadata().getOrDefault("context-path", "");
+        Request request = new Request.Builder()
+            .url(instance.getUri() + contextPath + API_PATH)
+            .header("Authorization", authorization)
+            .post(body)
+            .build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (response.isSuccessful()) {
+                sentCounter.increment(count);
+                return;
+            }
+            log.warn("Could not invalidate the caches of {}: status {}", instance.getUri(), response.code());
+        } catch (IOException e) {
+            log.warn("Could not invalidate the caches of {}: {}", instance.getUri(), e.getMessage());
+        }
+        failedCounter.increment(count);
+    }
+
+    private boolean isLocal(ServiceInstance instance) {
+        return localInstanceId != null && localInstanceId.equals(instance.getInstanceId());
+    }
+
+    private static Authentication peerAuthentication() {
+        return new UsernamePasswordAuthenticationToken(
+            PRINCIPAL,
+            null,
+            AuthorityRegistry.fromNames(List.of(AuthoritiesConstants.CACHE_PEER))
+        );
+    }
+
+    /**
+     * Post the queued batches, waiting for them for at most the timeout of a post, then stop.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Dropping {} batches of cache invalidations on shutdown", executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartiq.pim.service.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport delivering the invalidations to the receivers subscribed within the application, in the sending thread.
+ * Used by the tests, where another {@link CacheInvalidationService} plays the other instance.
+ */
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<List<CacheInvalidation>>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(List<CacheInvalidation> invalidations) {
+        receivers.forEach(receiver -> receiver.accept(invalidations));
+    }
+
+    @Override
+    public void subscribe(Consumer<List<CacheInvalidation>> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<List<CacheInvalidation>> receiver) {
+        receivers.remove(receiver);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Invalidation of the caches of the other instances of the application.
+ */
+package com.smartiq.pim.service.invalidation;
@@ -0,0 +1,55 @@
+package com.smartiq.pim.web.rest;
+
+import com.smartiq.pim.domain.AuditJournalEntry;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.service.AuditJournalService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for querying the audit journal, see {@link AuditJournalService}.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AuditJournalResource {
+
+    private final Logger log = LoggerFactory.getLogger(AuditJournalResource.class);
+
+    private final AuditJournalService auditJournalService;
+
+    public AuditJournalResource(AuditJournalService auditJournalService) {
+        this.auditJournalService = auditJournalService;
+    }
+
+    /**
+     * {@code GET  /admin/audit-journal} : get the journaled changes, of an entity type, of an entity or of a principal.
+     *
+     * @param entityType the simple name of the entity class, such as {@code Product}.
+     * @param entityId the id of the entity, with its entity type.
+     * @param principal the login of the user who made the changes.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of changes in body.
+     */
+    @GetMapping("/audit-journal")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AuditJournalEntry>> getAuditJournal(
+        @RequestParam(required = false) String entityType,
+        @RequestParam(required = false) Long entityId,
+        @RequestParam(required = false) String principal,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get the audit journal of {} {} {}", entityType, entityId, principal);
+        Page<AuditJournalEntry> page = auditJournalService.findEntries(entityType, entityId, principal, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+}
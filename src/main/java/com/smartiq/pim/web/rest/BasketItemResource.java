@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -162,6 +163,31 @@ public class BasketItemResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /basket-items?after=:cursor} : get a slice of the basketItems, in id order.
+     *
+     * @param after the cursor of the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size of the slice.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of basketItems in body.
+     */
+    @GetMapping(value = "/basket-items", params = KeysetPagination.AFTER_PARAM)
+    public ResponseEntity<List<BasketItem>> getBasketItemsAfter(
+        @RequestParam(KeysetPagination.AFTER_PARAM) String after,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a slice of BasketItems after : {}", after);
+        Slice<BasketItem> slice = basketItemRepository.findByIdGreaterThanOrderByIdAsc(
+            KeysetPagination.decodeCursor(after, ENTITY_NAME),
+            KeysetPagination.slice(pageable)
+        );
+        HttpHeaders headers = KeysetPagination.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            BasketItem::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /basket-items/:id} : get the "id" basketItem.
      *
@@ -1,30 +1,24 @@
 package com.smartiq.pim.web.rest;
 
 import com.smartiq.pim.domain.Basket;
-import com.smartiq.pim.domain.BasketItem;
-import com.smartiq.pim.domain.Product;
-import com.smartiq.pim.domain.User;
-import com.smartiq.pim.domain.enumeration.BasketStatus;
-import com.smartiq.pim.repository.BasketItemRepository;
 import com.smartiq.pim.repository.BasketRepository;
-import com.smartiq.pim.repository.ProductRepository;
-import com.smartiq.pim.repository.UserRepository;
 import com.smartiq.pim.security.SecurityUtils;
+import com.smartiq.pim.service.BasketService;
 import com.smartiq.pim.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -52,22 +46,11 @@ public class BasketResource {
 
     private final BasketRepository basketRepository;
 
-    private final UserRepository userRepository;
+    private final BasketService basketService;
 
-    private final BasketItemRepository basketItemRepository;
-
-    private final ProductRepository productRepository;
-
-    public BasketResource(
-        BasketRepository basketRepository,
-        UserRepository userRepository,
-        BasketItemRepository basketItemRepository,
-        ProductRepository productRepository
-    ) {
+    public BasketResource(BasketRepository basketRepository, BasketService basketService) {
         this.basketRepository = basketRepository;
-        this.userRepository = userRepository;
-        this.basketItemRepository = basketItemRepository;
-        this.productRepository = productRepository;
+        this.basketService = basketService;
     }
 
     /**
@@ -153,7 +136,7 @@ public class BasketResource {
         }
 
         Optional<Basket> result = basketRepository
-            .findById(basket.getId())
+            .findOneWithBasketItemsById(basket.getId())
             .map(existingBasket -> {
                 if (basket.getCreateDate() != null) {
                     existingBasket.setCreateDate(basket.getCreateDate());
@@ -185,10 +168,37 @@ public class BasketResource {
     public ResponseEntity<List<Basket>> getAllBaskets(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
         log.debug("REST request to get a page of Baskets");
         Page<Basket> page = basketRepository.findAll(pageable);
+        initializeBasketItems(page.getContent());
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /baskets?after=:cursor} : get a slice of the baskets, in id order.
+     *
+     * @param after the cursor of the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size of the slice.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of baskets in body.
+     */
+    @GetMapping(value = "/baskets", params = KeysetPagination.AFTER_PARAM)
+    public ResponseEntity<List<Basket>> getBasketsAfter(
+        @RequestParam(KeysetPagination.AFTER_PARAM) String after,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a slice of Baskets after : {}", after);
+        Slice<Basket> slice = basketRepository.findByIdGreaterThanOrderByIdAsc(
+            KeysetPagination.decodeCursor(after, ENTITY_NAME),
+            KeysetPagination.slice(pageable)
+        );
+        initializeBasketItems(slice.getContent());
+        HttpHeaders headers = KeysetPagination.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Basket::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /baskets/:id} : get the "id" basket.
      *
@@ -198,7 +208,7 @@ public class BasketResource {
     @GetMapping("/baskets/{id}")
     public ResponseEntity<Basket> getBasket(@PathVariable Long id) {
         log.debug("REST request to get Basket : {}", id);
-        Optional<Basket> basket = basketRepository.findById(id);
+        Optional<Basket> basket = basketRepository.findOneWithBasketItemsById(id);
         return ResponseUtil.wrapOrNotFound(basket);
     }
 
@@ -220,63 +230,45 @@ public class BasketResource {
 
     @GetMapping("/baskets/createOrGetActiveBasket")
     public ResponseEntity<Basket> createOrGetActiveBasket() {
-        return ResponseEntity.ok().body(getCurrentBasket());
+        return ResponseEntity.ok().body(basketService.getOrCreateActiveBasket(currentUserLogin()));
     }
 
+    /**
+     * {@code POST  /baskets/addItem/:productId} : Add one unit of a product to the active basket of the current user.
+     *
+     * @param productId the id of the product to add.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the basket, or with status {@code 404 (Not Found)} if the product does not exist.
+     */
     @PostMapping("/baskets/addItem/{productId}")
     public ResponseEntity<Basket> addItem(@PathVariable Long productId) {
-        Basket basket = getCurrentBasket();
-
-        BasketItem basketItem = new BasketItem();
-        basketItem.setProduct(productRepository.getById(productId));
-        basketItem.setBasket(basket);
-        basketItem.setQuantity(1);
-        basketItem.setTotalCost(basketItem.getProduct().getPrice().intValue());
-        basketItemRepository.save(basketItem);
-        basket.getBasketItems().add(basketItem);
-
-        basket.setTotalCost(calculateTotalBasketCost(basket));
-        basket = basketRepository.save(basket);
+        return ResponseUtil.wrapOrNotFound(basketService.addItem(currentUserLogin(), productId));
+    }
 
-        return ResponseEntity.ok().body(basket);
+    /**
+     * {@code POST  /baskets/setItemQuantity/:basketItemId/:quantity} : Change the quantity of an item of the active basket of the current user.
+     *
+     * @param basketItemId the id of the item.
+     * @param quantity the new quantity, {@code 0} to remove the item.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the basket, or with status {@code 404 (Not Found)} if the item is not in the basket.
+     */
+    @PostMapping("/baskets/setItemQuantity/{basketItemId}/{quantity}")
+    public ResponseEntity<Basket> setItemQuantity(@PathVariable Long basketItemId, @PathVariable int quantity) {
+        return ResponseUtil.wrapOrNotFound(basketService.changeItemQuantity(currentUserLogin(), basketItemId, quantity));
     }
 
     @GetMapping("/baskets/deleteItem/{basketItemId}")
-    public ResponseEntity<Basket> deleteItem(@PathVariable Long basketItemId, HttpServletRequest httpServletRequest) {
-        Basket basket = getCurrentBasket();
-        for (BasketItem basketItem : basket.getBasketItems()) {
-            if (basketItem.getId().longValue() == basketItemId) {
-                basket.getBasketItems().remove(basketItem);
-                break;
-            }
-        }
-
-        basket = basketRepository.save(basket);
-
-        return ResponseEntity.ok().body(basket);
+    public ResponseEntity<Basket> deleteItem(@PathVariable Long basketItemId) {
+        return ResponseEntity.ok().body(basketService.removeItem(currentUserLogin(), basketItemId));
     }
 
-    private Basket getCurrentBasket() {
-        List<Basket> baskets = basketRepository.findActiveBasketOfCurrentUser();
-        Basket currentBasket = null;
-        SecurityUtils.getCurrentUserLogin().get();
-        if (baskets.size() > 0) currentBasket = baskets.get(0); else {
-            Basket basket = new Basket();
-            basket.setCreateDate(LocalDate.now());
-            basket.setStatus(BasketStatus.ACTIVE);
-            basket.setTotalCost(0d);
-            Optional<User> user = userRepository.findOneByLogin(SecurityUtils.getCurrentUserLogin().get());
-            basket.setUser(user.get());
-            currentBasket = basketRepository.save(basket);
-        }
-        return currentBasket;
+    /**
+     * Load the items of the baskets of a page, {@code @BatchSize} baskets per query.
+     */
+    private static void initializeBasketItems(List<Basket> baskets) {
+        baskets.forEach(basket -> Hibernate.initialize(basket.getBasketItems()));
     }
 
-    private Double calculateTotalBasketCost(Basket basket) {
-        Double total = Double.valueOf(0);
-        for (BasketItem basketItem : basket.getBasketItems()) {
-            total = total + basketItem.getProduct().getPrice();
-        }
-        return total;
+    private String currentUserLogin() {
+        return SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("Current user login not found"));
     }
 }
@@ -0,0 +1,42 @@
+package com.smartiq.pim.web.rest;
+
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.service.invalidation.CacheInvalidation;
+import com.smartiq.pim.service.invalidation.CacheInvalidationService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller receiving the cache invalidations posted by the other instances, see
+ * {@link CacheInvalidationService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class CacheInvalidationResource {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationResource.class);
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public CacheInvalidationResource(CacheInvalidationService cacheInvalidationService) {
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    /**
+     * {@code POST  /cache-invalidations} : apply the cache invalidations of another instance.
+     *
+     * @param invalidations the invalidations.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/cache-invalidations")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.CACHE_PEER + "\")")
+    public ResponseEntity<Void> receiveCacheInvalidations(@RequestBody List<CacheInvalidation> invalidations) {
+        log.debug("REST request to apply {} cache invalidations", invalidations.size());
+        cacheInvalidationService.receive(invalidations);
+        return ResponseEntity.noContent().build();
+    }
+}
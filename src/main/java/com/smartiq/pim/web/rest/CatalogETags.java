@@ -0,0 +1,36 @@
+package com.smartiq.pim.web.rest;
+
+import com.smartiq.pim.service.CatalogVersion;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional requests on the catalog reads, tagged with the {@link CatalogVersion}.
+ */
+final class CatalogETags {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private CatalogETags() {}
+
+    /**
+     * Check the {@code If-None-Match} header of a catalog read against the current catalog version.
+     * <p>
+     * Call it before reading any data: when it returns {@code true} the response is already a
+     * {@code 304 (Not Modified)} and the handler should return {@code null}.
+     *
+     * @param catalogVersion the catalog version.
+     * @param request the current request.
+     * @return {@code true} if the client copy is current.
+     */
+    static boolean checkNotModified(CatalogVersion catalogVersion, ServletWebRequest request) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Let clients keep the response and revalidate it, instead of the default no-store
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(catalogVersion.getETag());
+    }
+}
@@ -2,6 +2,7 @@ package com.smartiq.pim.web.rest;
 
 import com.smartiq.pim.domain.Category;
 import com.smartiq.pim.repository.CategoryRepository;
+import com.smartiq.pim.service.CatalogVersion;
 import com.smartiq.pim.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -20,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -42,8 +44,11 @@ public class CategoryResource {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryResource(CategoryRepository categoryRepository) {
+    private final CatalogVersion catalogVersion;
+
+    public CategoryResource(CategoryRepository categoryRepository, CatalogVersion catalogVersion) {
         this.categoryRepository = categoryRepository;
+        this.catalogVersion = catalogVersion;
     }
 
     /**
@@ -149,11 +154,18 @@ public class CategoryResource {
      * {@code GET  /categories} : get all the categories.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body, or with status {@code 304 (Not Modified)} if the catalog did not change.
      */
     @GetMapping("/categories")
-    public ResponseEntity<List<Category>> getAllCategories(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<Category>> getAllCategories(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServletWebRequest request
+    ) {
         log.debug("REST request to get a page of Categories");
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
         Page<Category> page = categoryRepository.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -163,11 +175,15 @@ public class CategoryResource {
      * {@code GET  /categories/:id} : get the "id" category.
      *
      * @param id the id of the category to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category, or with status {@code 404 (Not Found)}.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category, or with status {@code 304 (Not Modified)} if the catalog did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/categories/{id}")
-    public ResponseEntity<Category> getCategory(@PathVariable Long id) {
+    public ResponseEntity<Category> getCategory(@PathVariable Long id, ServletWebRequest request) {
         log.debug("REST request to get Category : {}", id);
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
         Optional<Category> category = categoryRepository.findById(id);
         return ResponseUtil.wrapOrNotFound(category);
     }
@@ -0,0 +1,82 @@
+package com.smartiq.pim.web.rest;
+
+import com.smartiq.pim.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Keyset pagination of the list endpoints, as an alternative to the offset {@link Pageable}.
+ * <p>
+ * A client opts in with an {@code after} request parameter, empty for the first page, and follows the
+ * {@code next} link of each response. Rows are read in id order from the id of the previous page's last row,
+ * so deep pages cost the same as the first one and no count query is run.
+ */
+final class KeysetPagination {
+
+    static final String AFTER_PARAM = "after";
+
+    private static final String SIZE_PARAM = "size";
+
+    private KeysetPagination() {}
+
+    /**
+     * Decode a cursor sent by a client.
+     *
+     * @param cursor the cursor, empty for the first page.
+     * @param entityName the name of the listed entity, for the error message.
+     * @return the id after which to read.
+     */
+    static long decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Get the page request for a slice: only the size of the requested page is kept, the order is the id order.
+     *
+     * @param pageable the requested page.
+     * @return the first page of the requested size, unsorted.
+     */
+    static Pageable slice(Pageable pageable) {
+        return PageRequest.of(0, pageable.getPageSize());
+    }
+
+    /**
+     * Generate the {@code Link} header pointing to the next slice, if there is one.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the current slice.
+     * @param id the id of a listed element.
+     * @param <T> the type of the listed elements.
+     * @return the headers.
+     */
+    static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, Long> id) {
+        HttpHeaders headers = new HttpHeaders();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            String next = uriBuilder
+                .replaceQueryParam(AFTER_PARAM, encodeCursor(id.apply(content.get(content.size() - 1))))
+                .replaceQueryParam(SIZE_PARAM, slice.getSize())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
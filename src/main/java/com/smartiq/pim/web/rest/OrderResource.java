@@ -9,8 +9,10 @@ import com.smartiq.pim.repository.AddressRepository;
 import com.smartiq.pim.repository.BasketRepository;
 import com.smartiq.pim.repository.OrderRepository;
 import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
 import com.smartiq.pim.security.SecurityUtils;
-import com.smartiq.pim.service.OmIntegrationService;
+import com.smartiq.pim.service.OmOutboxService;
+import com.smartiq.pim.service.OrderExportService;
 import com.smartiq.pim.web.rest.errors.BadRequestAlertException;
 import java.io.IOException;
 import java.net.URI;
@@ -19,16 +21,23 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -54,20 +63,24 @@ public class OrderResource {
 
     private final AddressRepository addressRepository;
 
-    private final OmIntegrationService omIntegrationService;
+    private final OmOutboxService omOutboxService;
+
+    private final OrderExportService orderExportService;
 
     public OrderResource(
         OrderRepository orderRepository,
         UserRepository userRepository,
         BasketRepository basketRepository,
         AddressRepository addressRepository,
-        OmIntegrationService omIntegrationService
+        OmOutboxService omOutboxService,
+        OrderExportService orderExportService
     ) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.basketRepository = basketRepository;
         this.addressRepository = addressRepository;
-        this.omIntegrationService = omIntegrationService;
+        this.omOutboxService = omOutboxService;
+        this.orderExportService = orderExportService;
     }
 
     /**
@@ -76,11 +89,9 @@ public class OrderResource {
      * @param order the order to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order, or with status {@code 400 (Bad Request)} if the order has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
-     * @throws IOException
      */
     @PostMapping("/orders")
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody Order order, HttpServletRequest httpServletRequest)
-        throws URISyntaxException, IOException {
+    public ResponseEntity<Order> createOrder(@Valid @RequestBody Order order) throws URISyntaxException {
         log.debug("REST request to save Order : {}", order);
         if (order.getId() != null) {
             throw new BadRequestAlertException("A new order cannot already have an ID", ENTITY_NAME, "idexists");
@@ -110,8 +121,7 @@ public class OrderResource {
         order.setBasket(basket);
         order.setAddress(address);
         Order result = orderRepository.save(order);
-        String authTokenHeader = httpServletRequest.getHeader("Authorization");
-        omIntegrationService.createOrder(result, authTokenHeader);
+        omOutboxService.enqueueCreateOrder(result);
 
         return ResponseEntity
             .created(new URI("/api/orders/" + result.getId()))
@@ -202,12 +212,32 @@ public class OrderResource {
     /**
      * {@code GET  /orders} : get all the orders.
      *
+     * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
      */
     @GetMapping("/orders")
-    public List<Order> getAllOrders() {
-        log.debug("REST request to get all Orders");
-        return orderRepository.findAll();
+    public ResponseEntity<List<Order>> getAllOrders(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Orders");
+        Page<Order> page = orderRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /admin/orders/export} : export all the orders as newline-delimited JSON.
+     * <p>
+     * The orders are streamed from the database to the response, whatever their number.
+     *
+     * @param response the response to write the orders to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/admin/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(readOnly = true)
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Orders");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderExportService.exportOrders(response.getOutputStream());
     }
 
     /**
@@ -257,11 +287,11 @@ public class OrderResource {
     }
 
     @GetMapping("/orders/cancel/{orderId}")
-    public Order cancel(@PathVariable Long orderId, HttpServletRequest httpServletRequest) throws IOException {
+    public Order cancel(@PathVariable Long orderId) {
         Order order = orderRepository.getById(orderId);
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
-        omIntegrationService.cancelOrder(orderId, httpServletRequest.getHeader("Authorization"));
+        omOutboxService.enqueueCancelOrder(order);
         return order;
     }
 }
@@ -1,27 +1,48 @@
 package com.smartiq.pim.web.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.repository.ProductPhotoMetadata;
 import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.repository.ProductSummary;
+import com.smartiq.pim.service.CatalogPageCache;
+import com.smartiq.pim.service.CatalogPageCache.CachedPage;
+import com.smartiq.pim.service.CatalogVersion;
+import com.smartiq.pim.service.ProductPhotoService;
+import com.smartiq.pim.service.dto.ProductListDTO;
 import com.smartiq.pim.web.rest.errors.BadRequestAlertException;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -44,8 +65,26 @@ public class ProductResource {
 
     private final ProductRepository productRepository;
 
-    public ProductResource(ProductRepository productRepository) {
+    private final ProductPhotoService productPhotoService;
+
+    private final CatalogPageCache catalogPageCache;
+
+    private final CatalogVersion catalogVersion;
+
+    private final ObjectMapper objectMapper;
+
+    public ProductResource(
+        ProductRepository productRepository,
+        ProductPhotoService productPhotoService,
+        CatalogPageCache catalogPageCache,
+        CatalogVersion catalogVersion,
+        ObjectMapper objectMapper
+    ) {
         this.productRepository = productRepository;
+        this.productPhotoService = productPhotoService;
+        this.catalogPageCache = catalogPageCache;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -56,13 +95,16 @@ public class ProductResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/products")
-    @CacheEvict(cacheNames = "products", allEntries = true)
     public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) throws URISyntaxException {
         log.debug("REST request to save Product : {}", product);
         if (product.getId() != null) {
             throw new BadRequestAlertException("A new product cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        if (product.getPhoto() == null) {
+            product.setPhotoContentType(null);
+        }
         Product result = productRepository.save(product);
+        productPhotoService.savePhoto(result, product.getPhoto(), false);
         return ResponseEntity
             .created(new URI("/api/products/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -97,6 +139,7 @@ public class ProductResource {
         }
 
         Product result = productRepository.save(product);
+        productPhotoService.savePhoto(result, product.getPhoto(), true);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, product.getId().toString()))
@@ -146,9 +189,6 @@ public class ProductResource {
                 if (product.getStock() != null) {
                     existingProduct.setStock(product.getStock());
                 }
-                if (product.getPhoto() != null) {
-                    existingProduct.setPhoto(product.getPhoto());
-                }
                 if (product.getPhotoContentType() != null) {
                     existingProduct.setPhotoContentType(product.getPhotoContentType());
                 }
@@ -156,6 +196,7 @@ public class ProductResource {
                 return existingProduct;
             })
             .map(productRepository::save);
+        result.ifPresent(existingProduct -> productPhotoService.savePhoto(existingProduct, product.getPhoto(), false));
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -165,15 +206,151 @@ public class ProductResource {
 
     /**
      * {@code GET  /products} : get all the products.
+     * <p>
+     * Pages are served from the {@link CatalogPageCache}, which stores the serialized body and total count and is
+     * invalidated whenever a product or its category changes. The body is documented as the list of products it holds.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body, or with status {@code 304 (Not Modified)} if the catalog did not change.
      */
     @GetMapping("/products")
-    @Cacheable(cacheNames = "products")
-    public ResponseEntity<List<Product>> getAllProducts(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    @ApiResponse(
+        responseCode = "200",
+        description = "OK",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = ProductListDTO.class))
+        )
+    )
+    public ResponseEntity<byte[]> getAllProducts(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServletWebRequest request
+    ) {
         log.debug("REST request to get a page of Products");
-        Page<Product> page = productRepository.findAll(pageable);
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
+        CachedPage cachedPage = catalogPageCache.get(pageable, () -> loadCatalogPage(pageable));
+        // Built for each request, as the links carry the query parameters of the request
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            new PageImpl<>(List.of(), pageable, cachedPage.getTotalElements())
+        );
+        return ResponseEntity
+            .ok()
+            .headers(headers)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(cachedPage.getBody());
+    }
+
+    private CachedPage loadCatalogPage(Pageable pageable) {
+        Page<ProductListDTO> page = productRepository.findAll(pageable).map(ProductListDTO::new);
+        try {
+            return new CachedPage(
+                objectMapper.writeValueAsBytes(page.getContent()),
+                page.getTotalElements(),
+                page.getContent().stream().map(ProductListDTO::getId).collect(Collectors.toList())
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize a page of Products", e);
+        }
+    }
+
+    /**
+     * {@code GET  /products?after=:cursor} : get a slice of the products, in id order.
+     *
+     * @param after the cursor of the {@code next} link of the previous slice, empty for the first slice.
+     * @param view the view of the products, not supported by the slices.
+     * @param pageable the size of the slice.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body, or with status {@code 304 (Not Modified)} if the catalog did not change.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a view is requested.
+     */
+    @GetMapping(value = "/products", params = { KeysetPagination.AFTER_PARAM, "!categoryId" })
+    public ResponseEntity<List<ProductListDTO>> getProductsAfter(
+        @RequestParam(KeysetPagination.AFTER_PARAM) String after,
+        @RequestParam(required = false) String view,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServletWebRequest request
+    ) {
+        log.debug("REST request to get a slice of Products after : {}", after);
+        if (view != null) {
+            throw new BadRequestAlertException("A view cannot be requested with a cursor", ENTITY_NAME, "viewwithcursor");
+        }
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
+        Slice<ProductListDTO> slice = productRepository
+            .findByIdGreaterThanOrderByIdAsc(KeysetPagination.decodeCursor(after, ENTITY_NAME), KeysetPagination.slice(pageable))
+            .map(ProductListDTO::new);
+        HttpHeaders headers = KeysetPagination.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            ProductListDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /products?view=summary} : get a page of product summaries.
+     * <p>
+     * Only the id, name, price, stock and category name are selected, in a single statement, and are
+     * read as plain values: no entity is loaded nor tracked by the persistence context.
+     *
+     * @param pageable the pagination information.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of product summaries in body, or with status {@code 304 (Not Modified)} if the catalog did not change.
+     */
+    @GetMapping(value = "/products", params = { "view=summary", "!" + KeysetPagination.AFTER_PARAM, "!categoryId" })
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<ProductSummary>> getAllProductSummaries(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServletWebRequest request
+    ) {
+        log.debug("REST request to get a page of Product summaries");
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
+        Page<ProductSummary> page = productRepository.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products?categoryId=:categoryId} : get a page of the products of a category.
+     * <p>
+     * The ids of the products are read from the query cache and the products from the second level cache, until a
+     * product or category is written.
+     *
+     * @param categoryId the id of the category.
+     * @param after a cursor, not supported by the products of a category.
+     * @param view the view of the products, not supported by the products of a category.
+     * @param pageable the pagination information.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body, or with status {@code 304 (Not Modified)} if the catalog did not change.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a cursor or a view is requested.
+     */
+    @GetMapping(value = "/products", params = "categoryId")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<ProductListDTO>> getProductsOfCategory(
+        @RequestParam Long categoryId,
+        @RequestParam(name = KeysetPagination.AFTER_PARAM, required = false) String after,
+        @RequestParam(required = false) String view,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServletWebRequest request
+    ) {
+        log.debug("REST request to get a page of Products of Category : {}", categoryId);
+        if (after != null) {
+            throw new BadRequestAlertException("A cursor cannot be requested with a category", ENTITY_NAME, "cursorwithcategory");
+        }
+        if (view != null) {
+            throw new BadRequestAlertException("A view cannot be requested with a category", ENTITY_NAME, "viewwithcategory");
+        }
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
+        Page<ProductListDTO> page = productRepository.findAllByCategoryId(categoryId, pageable).map(ProductListDTO::new);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
@@ -182,15 +359,50 @@ public class ProductResource {
      * {@code GET  /products/:id} : get the "id" product.
      *
      * @param id the id of the product to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 404 (Not Found)}.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 304 (Not Modified)} if the catalog did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/products/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, ServletWebRequest request) {
         log.debug("REST request to get Product : {}", id);
+        if (CatalogETags.checkNotModified(catalogVersion, request)) {
+            return null;
+        }
         Optional<Product> product = productRepository.findById(id);
         return ResponseUtil.wrapOrNotFound(product);
     }
 
+    /**
+     * {@code GET  /products/:id/photo} : get the photo of the "id" product.
+     * <p>
+     * The image is copied from the database to the response without being loaded as a whole.
+     *
+     * @param id the id of the product whose photo to retrieve.
+     * @param webRequest the current request, used to evaluate its {@code If-None-Match} and {@code If-Modified-Since} headers.
+     * @param response the response the image is written to.
+     * @throws IOException if the response cannot be written.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the product has no photo.
+     */
+    @GetMapping("/products/{id}/photo")
+    @Transactional(readOnly = true)
+    public void getProductPhoto(@PathVariable Long id, WebRequest webRequest, HttpServletResponse response) throws IOException {
+        log.debug("REST request to get the photo of Product : {}", id);
+        ProductPhotoMetadata photo = productPhotoService
+            .findMetadata(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        // Sets the ETag and Last-Modified headers, or the 304 status when the client copy is still current
+        String eTag = "\"" + photo.getProductId() + "-" + photo.getVersion() + "\"";
+        if (webRequest.checkNotModified(eTag, photo.getLastModifiedDate().toEpochMilli())) {
+            return;
+        }
+        response.setContentType(photo.getContentType());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (!productPhotoService.writePhoto(id, response::setContentLengthLong, response.getOutputStream())) {
+            // Deleted since its metadata was read, nothing has been written yet
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * {@code DELETE  /products/:id} : delete the "id" product.
      *
@@ -200,6 +412,7 @@ public class ProductResource {
     @DeleteMapping("/products/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         log.debug("REST request to delete Product : {}", id);
+        productPhotoService.deletePhoto(id);
         productRepository.deleteById(id);
         return ResponseEntity
             .noContent()
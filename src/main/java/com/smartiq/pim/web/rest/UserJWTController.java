@@ -1,13 +1,19 @@
 package com.smartiq.pim.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.security.LoginAttemptLimiter;
 import com.smartiq.pim.security.jwt.JWTFilter;
 import com.smartiq.pim.security.jwt.TokenProvider;
+import com.smartiq.pim.service.RefreshTokenService;
 import com.smartiq.pim.web.rest.vm.LoginVM;
+import com.smartiq.pim.web.rest.vm.RefreshTokenVM;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
@@ -25,13 +31,29 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        LoginAttemptLimiter loginAttemptLimiter,
+        RefreshTokenService refreshTokenService,
+        ApplicationProperties applicationProperties
+    ) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.applicationProperties = applicationProperties;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        loginAttemptLimiter.acquire(loginVM.getUsername(), loginAttemptLimiter.clientAddress(request));
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
@@ -40,9 +62,45 @@ public class UserJWTController {
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+        String refreshToken = refreshTokenService.createToken(authentication.getName()).orElse(null);
+        return tokenResponse(jwt, refreshToken);
+    }
+
+    /**
+     * {@code POST  /authenticate/refresh} : exchange a refresh token for a short-lived access token and a new refresh token.
+     *
+     * @param refreshTokenVM the refresh token, which cannot be used again.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the new tokens in body.
+     * @throws BadCredentialsException {@code 401 (Unauthorized)} if the refresh token is unknown, revoked or expired.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        RefreshTokenService.Refresh refresh = refreshTokenService
+            .refresh(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        String jwt = tokenProvider.createToken(
+            refresh.getAuthentication(),
+            applicationProperties.getRefreshToken().getAccessTokenValidity().toMillis()
+        );
+        return tokenResponse(jwt, refresh.getRefreshToken());
+    }
+
+    /**
+     * {@code POST  /authenticate/revoke} : revoke a refresh token, as on logout.
+     *
+     * @param refreshTokenVM the refresh token to revoke.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/authenticate/revoke")
+    public ResponseEntity<Void> revoke(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        refreshTokenService.revokeToken(refreshTokenVM.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<JWTToken> tokenResponse(String jwt, String refreshToken) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -52,8 +110,11 @@ public class UserJWTController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -64,5 +125,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
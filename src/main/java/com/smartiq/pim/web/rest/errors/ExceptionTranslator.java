@@ -1,5 +1,7 @@
 package com.smartiq.pim.web.rest.errors;
 
+import com.smartiq.pim.security.LoginAttemptsExceededException;
+import com.smartiq.pim.security.PasswordHashingBusyException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -164,6 +166,22 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, problem, request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleLoginAttemptsExceeded(LoginAttemptsExceededException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_TOO_MANY_ATTEMPTS)
+            .build();
+        return create(ex, problem, request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePasswordHashingBusy(PasswordHashingBusyException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).with(MESSAGE_KEY, ErrorConstants.ERR_BUSY).build();
+        return create(ex, problem, request);
+    }
+
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
         Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
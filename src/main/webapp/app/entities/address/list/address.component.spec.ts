@@ -1,6 +1,8 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
 import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { HttpClientTestingModule } from '@angular/common/http/testing';
+import { ActivatedRoute } from '@angular/router';
+import { RouterTestingModule } from '@angular/router/testing';
 import { of } from 'rxjs';
 
 import { AddressService } from '../service/address.service';
@@ -14,8 +16,25 @@ describe('Address Management Component', () => {
 
   beforeEach(() => {
     TestBed.configureTestingModule({
-      imports: [HttpClientTestingModule],
+      imports: [RouterTestingModule.withRoutes([{ path: 'address', component: AddressComponent }]), HttpClientTestingModule],
       declarations: [AddressComponent],
+      providers: [
+        {
+          provide: ActivatedRoute,
+          useValue: {
+            data: of({
+              defaultSort: 'id,asc',
+            }),
+            queryParamMap: of(
+              jest.requireActual('@angular/router').convertToParamMap({
+                page: '1',
+                size: '1',
+                sort: 'id,desc',
+              })
+            ),
+          },
+        },
+      ],
     })
       .overrideTemplate(AddressComponent, '')
       .compileComponents();
@@ -43,4 +62,35 @@ describe('Address Management Component', () => {
     expect(service.query).toHaveBeenCalled();
     expect(comp.addresses?.[0]).toEqual(expect.objectContaining({ id: 123 }));
   });
+
+  it('should load a page', () => {
+    // WHEN
+    comp.loadPage(1);
+
+    // THEN
+    expect(service.query).toHaveBeenCalled();
+    expect(comp.addresses?.[0]).toEqual(expect.objectContaining({ id: 123 }));
+  });
+
+  it('should calculate the sort attribute for an id', () => {
+    // WHEN
+    comp.ngOnInit();
+
+    // THEN
+    expect(service.query).toHaveBeenCalledWith(expect.objectContaining({ sort: ['id,desc'] }));
+  });
+
+  it('should calculate the sort attribute for a non-id attribute', () => {
+    // INIT
+    comp.ngOnInit();
+
+    // GIVEN
+    comp.predicate = 'name';
+
+    // WHEN
+    comp.loadPage(1);
+
+    // THEN
+    expect(service.query).toHaveBeenLastCalledWith(expect.objectContaining({ sort: ['name,desc', 'id'] }));
+  });
 });
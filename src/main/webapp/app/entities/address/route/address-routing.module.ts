@@ -11,6 +11,9 @@ const addressRoute: Routes = [
   {
     path: '',
     component: AddressComponent,
+    data: {
+      defaultSort: 'id,asc',
+    },
     canActivate: [UserRouteAccessService],
   },
   {
@@ -11,6 +11,9 @@ const orderRoute: Routes = [
   {
     path: '',
     component: OrderComponent,
+    data: {
+      defaultSort: 'id,asc',
+    },
     canActivate: [UserRouteAccessService],
   },
   {
@@ -1,24 +1,47 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { ActivatedRoute } from '@angular/router';
+import { DomSanitizer, SafeUrl } from '@angular/platform-browser';
 
 import { IProduct } from '../product.model';
+import { ProductService } from '../service/product.service';
 import { DataUtils } from 'app/core/util/data-util.service';
 
 @Component({
   selector: 'jhi-product-detail',
   templateUrl: './product-detail.component.html',
 })
-export class ProductDetailComponent implements OnInit {
+export class ProductDetailComponent implements OnInit, OnDestroy {
   product: IProduct | null = null;
+  photoUrl: SafeUrl | null = null;
 
-  constructor(protected dataUtils: DataUtils, protected activatedRoute: ActivatedRoute) {}
+  private photoObjectUrl: string | null = null;
+
+  constructor(
+    protected dataUtils: DataUtils,
+    protected productService: ProductService,
+    protected sanitizer: DomSanitizer,
+    protected activatedRoute: ActivatedRoute
+  ) {}
 
   ngOnInit(): void {
     this.activatedRoute.data.subscribe(({ product }) => {
       this.product = product;
+      if (product?.id && product.photoContentType) {
+        // The photo endpoint requires the bearer token, which an <img> tag does not send
+        this.productService.findPhoto(product.id).subscribe(photo => {
+          this.photoObjectUrl = URL.createObjectURL(photo);
+          this.photoUrl = this.sanitizer.bypassSecurityTrustUrl(this.photoObjectUrl);
+        });
+      }
     });
   }
 
+  ngOnDestroy(): void {
+    if (this.photoObjectUrl) {
+      URL.revokeObjectURL(this.photoObjectUrl);
+    }
+  }
+
   byteSize(base64String: string): string {
     return this.dataUtils.byteSize(base64String);
   }
@@ -1,6 +1,7 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { ActivatedRoute, Router } from '@angular/router';
+import { DomSanitizer, SafeUrl } from '@angular/platform-browser';
 import { combineLatest } from 'rxjs';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
@@ -15,7 +16,7 @@ import { DataUtils } from 'app/core/util/data-util.service';
   selector: 'jhi-product',
   templateUrl: './product.component.html',
 })
-export class ProductComponent implements OnInit {
+export class ProductComponent implements OnInit, OnDestroy {
   products?: IProduct[];
   isLoading = false;
   totalItems = 0;
@@ -24,13 +25,17 @@ export class ProductComponent implements OnInit {
   predicate!: string;
   ascending!: boolean;
   ngbPaginationPage = 1;
+  photoUrls = new Map<number, SafeUrl>();
+
+  private photoObjectUrls: string[] = [];
 
   constructor(
     protected productService: ProductService,
     protected activatedRoute: ActivatedRoute,
     protected dataUtils: DataUtils,
     protected router: Router,
-    protected modalService: NgbModal
+    protected modalService: NgbModal,
+    protected sanitizer: DomSanitizer
   ) {}
 
   loadPage(page?: number, dontNavigate?: boolean): void {
@@ -59,6 +64,10 @@ export class ProductComponent implements OnInit {
     this.handleNavigation();
   }
 
+  ngOnDestroy(): void {
+    this.revokePhotoUrls();
+  }
+
   trackId(_index: number, item: IProduct): number {
     return item.id!;
   }
@@ -119,6 +128,27 @@ export class ProductComponent implements OnInit {
     }
     this.products = data ?? [];
     this.ngbPaginationPage = this.page;
+    this.loadPhotos(this.products);
+  }
+
+  protected loadPhotos(products: IProduct[]): void {
+    this.revokePhotoUrls();
+    // The photo endpoint requires the bearer token, which an <img> tag does not send
+    products
+      .filter(product => product.id && product.photoUrl)
+      .forEach(product => {
+        this.productService.findPhoto(product.id!).subscribe(photo => {
+          const objectUrl = URL.createObjectURL(photo);
+          this.photoObjectUrls.push(objectUrl);
+          this.photoUrls.set(product.id!, this.sanitizer.bypassSecurityTrustUrl(objectUrl));
+        });
+      });
+  }
+
+  protected revokePhotoUrls(): void {
+    this.photoObjectUrls.forEach(objectUrl => URL.revokeObjectURL(objectUrl));
+    this.photoObjectUrls = [];
+    this.photoUrls = new Map<number, SafeUrl>();
   }
 
   protected onError(): void {
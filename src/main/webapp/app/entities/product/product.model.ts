@@ -9,7 +9,10 @@ export interface IProduct {
   stock?: number;
   photoContentType?: string | null;
   photo?: string | null;
+  photoUrl?: string | null;
   category?: ICategory | null;
+  categoryId?: number | null;
+  categoryName?: string | null;
   basketItems?: IBasketItem[] | null;
 }
 
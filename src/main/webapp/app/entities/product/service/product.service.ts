@@ -32,6 +32,10 @@ export class ProductService {
     return this.http.get<IProduct>(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
 
+  findPhoto(id: number): Observable<Blob> {
+    return this.http.get(`${this.resourceUrl}/${id}/photo`, { responseType: 'blob' });
+  }
+
   query(req?: any): Observable<EntityArrayResponseType> {
     const options = createRequestOption(req);
     return this.http.get<IProduct[]>(this.resourceUrl, { params: options, observe: 'response' });
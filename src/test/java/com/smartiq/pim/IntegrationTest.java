@@ -1,17 +1,22 @@
 package com.smartiq.pim;
 
 import com.smartiq.pim.PimApp;
+import com.smartiq.pim.web.rest.QueryCountExtension;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.context.SpringBootTest;
 
 /**
  * Base composite annotation for integration tests.
+ * <p>
+ * The REST calls of the tests are checked against the {@link com.smartiq.pim.web.rest.QueryBudget}s of their class.
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @SpringBootTest(classes = PimApp.class)
+@ExtendWith(QueryCountExtension.class)
 public @interface IntegrationTest {
 }
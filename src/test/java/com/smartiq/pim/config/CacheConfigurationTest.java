@@ -0,0 +1,145 @@
+package com.smartiq.pim.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import javax.cache.Caching;
+import org.ehcache.Cache;
+import org.ehcache.PersistentCacheManager;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link CacheConfiguration} class.
+ */
+class CacheConfigurationTest {
+
+    @TempDir
+    Path diskDirectory;
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheConfiguration cacheConfiguration;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        cacheConfiguration = new CacheConfiguration(new JHipsterProperties(), applicationProperties);
+    }
+
+    @Test
+    void failsWhenRegionsAreMissing() {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        try (
+            javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(
+                URI.create("urn:cache-configuration-test"),
+                ConfigurationBuilder.newConfigurationBuilder().build()
+            )
+        ) {
+            assertThatThrownBy(() -> cacheConfiguration.cacheManagerCustomizer().customize(cacheManager))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Product")
+                .hasMessageContaining("Category.products");
+        }
+    }
+
+    @Test
+    void spillsEntriesToTheOffHeapAndDiskTiers() {
+        applicationProperties.getCache().setDiskDirectory(diskDirectory.toString());
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffHeapSize(DataSize.ofMegabytes(1));
+        region.setDiskSize(DataSize.ofMegabytes(2));
+        region.setTimeToIdle(Duration.ofMinutes(10));
+
+        try (
+            PersistentCacheManager cacheManager = CacheManagerBuilder
+                .newCacheManagerBuilder()
+                .with(CacheManagerBuilder.persistence(diskDirectory.toFile()))
+                .withCache("Product", cacheConfiguration.cacheConfiguration("Product", region))
+                .build(true)
+        ) {
+            Cache<Object, Object> cache = cacheManager.getCache("Product", Object.class, Object.class);
+            for (long id = 0; id < 100; id++) {
+                cache.put(id, "product " + id);
+            }
+
+            for (long id = 0; id < 100; id++) {
+                assertThat(cache.get(id)).isEqualTo("product " + id);
+            }
+        }
+    }
+
+    @Test
+    void rejectsBothHeapEntriesAndHeapSize() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setHeapSize(DataSize.ofMegabytes(1));
+
+        assertThatThrownBy(() -> cacheConfiguration.cacheConfiguration("Product", region))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("heap-entries and heap-size");
+    }
+
+    @Test
+    void rejectsBothTimeToLiveAndTimeToIdle() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToLive(Duration.ofMinutes(10));
+        region.setTimeToIdle(Duration.ofMinutes(10));
+
+        assertThatThrownBy(() -> cacheConfiguration.cacheConfiguration("Product", region))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("time-to-live and time-to-idle");
+    }
+
+    @Test
+    void rejectsADiskTierWithoutDirectory() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setDiskSize(DataSize.ofMegabytes(2));
+
+        assertThatThrownBy(() -> cacheConfiguration.cacheConfiguration("Product", region))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("disk-directory");
+    }
+
+    @Test
+    void rejectsQueryResultsOutlivingTheUpdateTimestamps() {
+        ApplicationProperties.Cache.Region timestamps = new ApplicationProperties.Cache.Region();
+        timestamps.setTimeToLive(Duration.ofMinutes(10));
+        ApplicationProperties.Cache.Region queryResults = new ApplicationProperties.Cache.Region();
+        queryResults.setTimeToLive(Duration.ofHours(1));
+        applicationProperties.getCache().getRegions().put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        applicationProperties.getCache().getRegions().put("catalogQueries", queryResults);
+
+        assertThatThrownBy(() -> cacheConfiguration.checkQueryRegions("catalogQueries"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("must not live longer");
+
+        timestamps.setTimeToLive(Duration.ofDays(1));
+        cacheConfiguration.checkQueryRegions("catalogQueries");
+    }
+
+    @Test
+    void rejectsAQueryRegionExpiringWhenIdle() {
+        ApplicationProperties.Cache.Region timestamps = new ApplicationProperties.Cache.Region();
+        timestamps.setTimeToIdle(Duration.ofDays(1));
+        applicationProperties.getCache().getRegions().put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        applicationProperties.getCache().getRegions().put("catalogQueries", new ApplicationProperties.Cache.Region());
+
+        assertThatThrownBy(() -> cacheConfiguration.checkQueryRegions("catalogQueries"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("time-to-idle");
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartiq.pim.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link CacheRegionStatistics} class.
+ */
+class CacheRegionStatisticsTest {
+
+    private static final String CACHE_NAME = "com.smartiq.pim.domain.Product";
+
+    private CacheManager cacheManager;
+
+    private Cache<Object, Object> cache;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(2L);
+        region.setOffHeapSize(DataSize.ofMegabytes(1));
+        CacheConfiguration cacheConfiguration = new CacheConfiguration(new JHipsterProperties(), applicationProperties);
+
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        cacheManager =
+            cachingProvider.getCacheManager(
+                URI.create("urn:cache-region-statistics-test"),
+                ConfigurationBuilder.newConfigurationBuilder().build()
+            );
+        cache =
+            cacheManager.createCache(
+                CACHE_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfiguration.cacheConfiguration("Product", region))
+            );
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void countsTheOperationsOfEachRegion() {
+        new CacheRegionStatistics(cacheManager, applicationProperties.getCache().getStatistics()).bindTo(meterRegistry);
+
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+        cache.get(1L);
+        cache.get(4L);
+        cache.remove(2L);
+
+        assertThat(count(CacheRegionStatistics.GETS_METER_NAME, "result", "hit")).isEqualTo(1);
+        assertThat(count(CacheRegionStatistics.GETS_METER_NAME, "result", "miss")).isEqualTo(1);
+        assertThat(count(CacheRegionStatistics.PUTS_METER_NAME)).isEqualTo(3);
+        assertThat(count(CacheRegionStatistics.REMOVALS_METER_NAME)).isEqualTo(1);
+        assertThat(gauge(CacheRegionStatistics.MAPPINGS_METER_NAME, "tier", "OffHeap")).isEqualTo(2);
+        assertThat(gauge(CacheRegionStatistics.BYTES_METER_NAME, "tier", "OffHeap", "type", "occupied")).isPositive();
+        assertThat(meterRegistry.get(CacheRegionStatistics.GET_LATENCY_METER_NAME).tag("region", "Product").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshotsEachRegion() {
+        CacheRegionStatistics cacheRegionStatistics = new CacheRegionStatistics(
+            cacheManager,
+            applicationProperties.getCache().getStatistics()
+        );
+        cacheRegionStatistics.bindTo(meterRegistry);
+
+        cache.put(1L, "one");
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        CacheRegionStatistics.RegionSnapshot snapshot = cacheRegionStatistics.snapshot("Product");
+        assertThat(snapshot.getHits()).isEqualTo(3);
+        assertThat(snapshot.getMisses()).isEqualTo(1);
+        assertThat(snapshot.getHitRatio()).isEqualTo(0.75);
+        assertThat(snapshot.getMeanGetLatencyMicros()).isNotNull();
+        assertThat(snapshot.getTiers()).containsKeys("OnHeap", "OffHeap");
+        assertThat(snapshot.getTiers().get("OffHeap").getMappings()).isEqualTo(1);
+        assertThat(cacheRegionStatistics.snapshot()).containsOnlyKeys("Product");
+        assertThat(cacheRegionStatistics.snapshot("Category")).isNull();
+
+        CacheStatisticsEndpoint endpoint = new CacheStatisticsEndpoint(cacheRegionStatistics);
+        assertThat(endpoint.regions(null)).containsOnlyKeys("Product");
+        assertThat(endpoint.regions("Product").get("Product").getHits()).isEqualTo(3);
+        assertThat(endpoint.regions("Category")).isEmpty();
+    }
+
+    @Test
+    void doesNotTimeTheGetsWhenLatencyIsDisabled() {
+        applicationProperties.getCache().getStatistics().setLatencyEnabled(false);
+        CacheRegionStatistics cacheRegionStatistics = new CacheRegionStatistics(
+            cacheManager,
+            applicationProperties.getCache().getStatistics()
+        );
+        cacheRegionStatistics.bindTo(meterRegistry);
+
+        cache.get(1L);
+
+        assertThat(meterRegistry.find(CacheRegionStatistics.GET_LATENCY_METER_NAME).timer()).isNull();
+        assertThat(cacheRegionStatistics.snapshot("Product").getMeanGetLatencyMicros()).isNull();
+        assertThat(cacheRegionStatistics.snapshot("Product").getHitRatio()).isZero();
+    }
+
+    private double count(String name, String... tags) {
+        return meterRegistry.get(name).tag("region", "Product").tags(tags).functionCounter().count();
+    }
+
+    private double gauge(String name, String... tags) {
+        return meterRegistry.get(name).tag("region", "Product").tags(tags).gauge().value();
+    }
+}
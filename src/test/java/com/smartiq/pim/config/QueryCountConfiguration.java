@@ -0,0 +1,19 @@
+package com.smartiq.pim.config;
+
+import com.smartiq.pim.web.rest.QueryCountFilter;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Measures the REST calls made through {@code MockMvc} against their {@link com.smartiq.pim.web.rest.QueryBudget}.
+ */
+@Configuration
+public class QueryCountConfiguration {
+
+    @Bean
+    public MockMvcBuilderCustomizer queryCountMockMvcBuilderCustomizer(EntityManagerFactory entityManagerFactory) {
+        return builder -> builder.addFilters(new QueryCountFilter(entityManagerFactory));
+    }
+}
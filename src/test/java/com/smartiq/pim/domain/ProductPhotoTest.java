@@ -0,0 +1,23 @@
+package com.smartiq.pim.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartiq.pim.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class ProductPhotoTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(ProductPhoto.class);
+        ProductPhoto productPhoto1 = new ProductPhoto();
+        productPhoto1.setProductId(1L);
+        ProductPhoto productPhoto2 = new ProductPhoto();
+        productPhoto2.setProductId(productPhoto1.getProductId());
+        assertThat(productPhoto1).isEqualTo(productPhoto2);
+        productPhoto2.setProductId(2L);
+        assertThat(productPhoto1).isNotEqualTo(productPhoto2);
+        productPhoto1.setProductId(null);
+        assertThat(productPhoto1).isNotEqualTo(productPhoto2);
+    }
+}
@@ -67,4 +67,22 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testTokenCacheMetersTrackHitsMissesAndVerifications() {
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_HIT_RATIO_METER_NAME).gauge().value()).isZero();
+
+        securityMetersService.trackTokenCacheMiss();
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheHit();
+
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_CACHE_HIT_RATIO_METER_NAME).gauge().value()).isEqualTo(0.75);
+
+        assertThat(securityMetersService.recordTokenVerification(() -> "verified")).isEqualTo("verified");
+
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_VERIFICATION_METER_NAME).timer().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,53 @@
+package com.smartiq.pim.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class AuthorityRegistryTest {
+
+    @AfterEach
+    public void cleanup() {
+        AuthorityRegistry.clear();
+    }
+
+    @Test
+    void testFromClaimSharesTheAuthoritiesOfEachClaim() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+
+        assertThat(authorities)
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        assertThat(AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER)).isSameAs(authorities);
+        assertThatThrownBy(() -> authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testFromClaimIgnoresEmptyAuthorities() {
+        assertThat(AuthorityRegistry.fromClaim("")).isEmpty();
+        assertThat(AuthorityRegistry.fromClaim(AuthoritiesConstants.USER + ", ,"))
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+    }
+
+    @Test
+    void testFromNamesSharesTheAuthoritiesOfTheSameNamesInAnyOrder() {
+        assertThat(AuthorityRegistry.fromNames(List.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)))
+            .isSameAs(AuthorityRegistry.fromNames(List.of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER)))
+            .isSameAs(AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER));
+    }
+
+    @Test
+    void testFromClaimStillBuildsTheAuthoritiesOnceFull() {
+        for (int i = 0; i < AuthorityRegistry.MAXIMUM_SIZE; i++) {
+            AuthorityRegistry.fromClaim("ROLE_" + i);
+        }
+
+        assertThat(AuthorityRegistry.fromClaim("ROLE_UNREGISTERED")).containsExactly(new SimpleGrantedAuthority("ROLE_UNREGISTERED"));
+        assertThat(AuthorityRegistry.fromClaim("ROLE_UNREGISTERED")).isNotSameAs(AuthorityRegistry.fromClaim("ROLE_UNREGISTERED"));
+    }
+}
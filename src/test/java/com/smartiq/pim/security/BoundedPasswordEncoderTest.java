@@ -0,0 +1,82 @@
+package com.smartiq.pim.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        boundedPasswordEncoder.close();
+    }
+
+    @Test
+    void testEncodesAndMatchesOnTheHashingThreads() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        String encoded = boundedPasswordEncoder.encode("password");
+
+        assertThat(boundedPasswordEncoder.matches("password", encoded)).isTrue();
+        assertThat(boundedPasswordEncoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.find("resilience4j.bulkhead.thread.pool.size").tag("name", "passwordHashing").gauge()).isNotNull();
+    }
+
+    @Test
+    void testUpgradesWeakerHashes() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, meterRegistry);
+
+        assertThat(boundedPasswordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(boundedPasswordEncoder.upgradeEncoding(boundedPasswordEncoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    void testRejectsPasswordsOnceTheQueueIsFull() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        boundedPasswordEncoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("running"));
+        assertThat(hashing.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("queued"));
+        while (boundedPasswordEncoder.queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> boundedPasswordEncoder.encode("rejected")).isInstanceOf(PasswordHashingBusyException.class);
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+}
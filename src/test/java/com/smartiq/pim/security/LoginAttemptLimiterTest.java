@@ -0,0 +1,85 @@
+package com.smartiq.pim.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.smartiq.pim.config.ApplicationProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class LoginAttemptLimiterTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getLogin().setAttemptsPerLogin(2);
+        applicationProperties.getLogin().setAttemptsPerIp(3);
+        loginAttemptLimiter = new LoginAttemptLimiter(applicationProperties);
+    }
+
+    @Test
+    void testAcquireIsLimitedPerLoginWhateverTheCase() {
+        loginAttemptLimiter.acquire("user", "10.0.0.1");
+        loginAttemptLimiter.acquire("USER", "10.0.0.2");
+
+        assertThatThrownBy(() -> loginAttemptLimiter.acquire("User", "10.0.0.3")).isInstanceOf(LoginAttemptsExceededException.class);
+        assertThatCode(() -> loginAttemptLimiter.acquire("admin", "10.0.0.3")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testAcquireIsLimitedPerIp() {
+        loginAttemptLimiter.acquire("user1", "10.0.0.1");
+        loginAttemptLimiter.acquire("user2", "10.0.0.1");
+        loginAttemptLimiter.acquire("user3", "10.0.0.1");
+
+        assertThatThrownBy(() -> loginAttemptLimiter.acquire("user4", "10.0.0.1")).isInstanceOf(LoginAttemptsExceededException.class);
+        assertThatCode(() -> loginAttemptLimiter.acquire("user4", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testClientAddressIsTheRemoteAddressByDefault() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "10.0.0.2");
+
+        assertThat(loginAttemptLimiter.clientAddress(request)).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void testClientAddressIsTheLastAddressOfTheConfiguredHeader() {
+        applicationProperties.getLogin().setIpHeader("X-Forwarded-For");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Forwarded-For", "10.0.0.2, 10.0.0.3");
+
+        assertThat(loginAttemptLimiter.clientAddress(request)).isEqualTo("10.0.0.3");
+
+        // Without the header, the request did not go through the gateway
+        assertThat(loginAttemptLimiter.clientAddress(new MockHttpServletRequest())).isEqualTo("127.0.0.1");
+    }
+
+    @Test
+    void testTokenBucketIsRefilledOverTime() {
+        long refillPeriod = Duration.ofMinutes(1).toNanos();
+        LoginAttemptLimiter.TokenBucket bucket = new LoginAttemptLimiter.TokenBucket(2, refillPeriod);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryConsume(now)).isTrue();
+        assertThat(bucket.tryConsume(now)).isTrue();
+        assertThat(bucket.tryConsume(now)).isFalse();
+        assertThat(bucket.tryConsume(now + refillPeriod / 4)).isFalse();
+        assertThat(bucket.tryConsume(now + refillPeriod / 2)).isTrue();
+        assertThat(bucket.tryConsume(now + refillPeriod / 2)).isFalse();
+        // Never more than the capacity
+        assertThat(bucket.tryConsume(now + 10 * refillPeriod)).isTrue();
+        assertThat(bucket.tryConsume(now + 10 * refillPeriod)).isTrue();
+        assertThat(bucket.tryConsume(now + 10 * refillPeriod)).isFalse();
+    }
+}
@@ -8,6 +8,7 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
@@ -27,6 +28,7 @@ class TokenProviderTest {
 
     private Key key;
     private TokenProvider tokenProvider;
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     public void setup() {
@@ -34,7 +36,8 @@ class TokenProviderTest {
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
         tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
@@ -88,6 +91,45 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateVerifiesEachTokenOnce() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.authenticate(token).orElseThrow();
+        Authentication second = tokenProvider.authenticate(token).orElseThrow();
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(second.getName()).isEqualTo("anonymous");
+        assertThat(second.getCredentials()).isEqualTo(token);
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_VERIFICATION_METER_NAME).timer().count()).isEqualTo(1);
+        assertThat(tokenCacheLookups("hit")).isEqualTo(1);
+        assertThat(tokenCacheLookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void testAuthenticateDoesNotCacheInvalidTokens() {
+        String token = createTokenWithDifferentSignature();
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+
+        assertThat(meterRegistry.get(SecurityMetersService.TOKEN_VERIFICATION_METER_NAME).timer().count()).isEqualTo(2);
+        assertThat(tokenCacheLookups("hit")).isZero();
+    }
+
+    @Test
+    void testAuthenticateDoesNotOutliveTheTokenExpiration() throws InterruptedException {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 1500L);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.authenticate(token)).isPresent();
+
+        Thread.sleep(2000);
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenCacheLookups("hit")).isZero();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -116,6 +158,10 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    private double tokenCacheLookups(String result) {
+        return meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", result).counter().count();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
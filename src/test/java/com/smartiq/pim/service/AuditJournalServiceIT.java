@@ -0,0 +1,117 @@
+package com.smartiq.pim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.AuditJournalEntry;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.enumeration.AuditChangeType;
+import com.smartiq.pim.repository.AuditJournalEntryRepository;
+import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link AuditJournalService}.
+ * <p>
+ * Not transactional: changes are journaled once their transaction has committed.
+ */
+@IntegrationTest
+class AuditJournalServiceIT {
+
+    @Autowired
+    private AuditJournalService auditJournalService;
+
+    @Autowired
+    private AuditJournalEntryRepository auditJournalEntryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product;
+
+    @AfterEach
+    public void cleanup() {
+        if (product != null && product.getId() != null) {
+            productRepository.deleteById(product.getId());
+        }
+        auditJournalService.flush();
+        auditJournalEntryRepository.deleteAll();
+    }
+
+    private List<AuditJournalEntry> entriesOf(Long productId) {
+        return auditJournalEntryRepository
+            .findAllByEntityTypeAndEntityId("Product", productId, PageRequest.of(0, 10, Sort.by("id")))
+            .getContent();
+    }
+
+    @Test
+    @WithMockUser("audit-journal-user")
+    void journalsCommittedChangesWithTheirPrincipal() {
+        product = productRepository.save(new Product().name("name").price(10.0).stock(100));
+        productRepository.save(product.stock(5));
+
+        auditJournalService.flush();
+
+        List<AuditJournalEntry> entries = entriesOf(product.getId());
+        assertThat(entries).extracting(AuditJournalEntry::getChangeType).containsExactly(AuditChangeType.INSERT, AuditChangeType.UPDATE);
+        assertThat(entries).extracting(AuditJournalEntry::getPrincipal).containsOnly("audit-journal-user");
+        assertThat(entries.get(0).getChangedProperties()).isNull();
+        assertThat(entries.get(1).getChangedProperties()).isEqualTo("stock");
+    }
+
+    @Test
+    void doesNotJournalRolledBackChanges() {
+        Product rolledBack = new TransactionTemplate(transactionManager)
+            .execute(status -> {
+                status.setRollbackOnly();
+                return productRepository.saveAndFlush(new Product().name("name").price(10.0).stock(100));
+            });
+
+        auditJournalService.flush();
+
+        assertThat(entriesOf(rolledBack.getId())).isEmpty();
+    }
+
+    @Test
+    void dropsChangesOnceTheQueueIsFull() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAuditJournal().setQueueCapacity(1);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditJournalService boundedService = new AuditJournalService(
+            auditJournalEntryRepository,
+            jdbcTemplate,
+            transactionManager,
+            applicationProperties,
+            meterRegistry
+        );
+
+        boundedService.onEntityChanged(new EntityChangedEvent(Product.class, -1L, ChangeType.DELETE, Set.of()));
+        boundedService.onEntityChanged(new EntityChangedEvent(Product.class, -2L, ChangeType.DELETE, Set.of()));
+
+        assertThat(meterRegistry.get(AuditJournalService.ENTRIES_METER_NAME).tag("result", "dropped").counter().count()).isEqualTo(1);
+        assertThat(boundedService.flush()).isEqualTo(1);
+        assertThat(entriesOf(-1L)).hasSize(1);
+        assertThat(entriesOf(-2L)).isEmpty();
+    }
+}
@@ -0,0 +1,178 @@
+package com.smartiq.pim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.Order;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import com.smartiq.pim.domain.enumeration.OrderStatus;
+import com.smartiq.pim.repository.BasketItemRepository;
+import com.smartiq.pim.repository.BasketRepository;
+import com.smartiq.pim.repository.OrderRepository;
+import com.smartiq.pim.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link BasketExpiryService}.
+ */
+@IntegrationTest
+@Transactional
+class BasketExpiryServiceIT {
+
+    private static final ApplicationProperties.BasketExpiry DEFAULTS = new ApplicationProperties.BasketExpiry();
+
+    @Autowired
+    private BasketExpiryService basketExpiryService;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @Autowired
+    private BasketItemRepository basketItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    private Product product;
+
+    @BeforeEach
+    public void initTest() {
+        product = productRepository.save(new Product().name("name").price(10.0).stock(100));
+    }
+
+    @AfterEach
+    public void resetProperties() {
+        applicationProperties.getBasketExpiry().setChunkSize(DEFAULTS.getChunkSize());
+        applicationProperties.getBasketExpiry().setMaxRowsPerRun(DEFAULTS.getMaxRowsPerRun());
+    }
+
+    private Basket createBasket(BasketStatus status, Duration age) {
+        Basket basket = basketRepository.save(
+            new Basket()
+                .createDate(LocalDate.now())
+                .status(status)
+                .totalCost(BigDecimal.TEN)
+                .lastModifiedDate(Instant.now().minus(age))
+        );
+        basketItemRepository.saveAndFlush(new BasketItem().quantity(1).totalCost(BigDecimal.TEN).product(product).basket(basket));
+        return basket;
+    }
+
+    private void addItem(Basket basket) {
+        Product other = productRepository.save(new Product().name("other").price(10.0).stock(100));
+        basketItemRepository.saveAndFlush(new BasketItem().quantity(1).totalCost(BigDecimal.TEN).product(other).basket(basket));
+    }
+
+    private void order(Basket basket) {
+        orderRepository.saveAndFlush(new Order().createDate(LocalDate.now()).status(OrderStatus.NEW).basket(basket));
+    }
+
+    private BasketStatus statusOf(Basket basket) {
+        return basketRepository.findById(basket.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    void expireAbandonedBasketsInChunks() {
+        Basket abandoned = createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().plusDays(1));
+        Basket otherAbandoned = createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().plusDays(2));
+        Basket recent = createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().minusDays(1));
+        Basket paid = createBasket(BasketStatus.PAID, DEFAULTS.getTtl().plusDays(1));
+        applicationProperties.getBasketExpiry().setChunkSize(1);
+        double expired = meterRegistry.get(BasketExpiryService.ROWS_METER_NAME).tag("operation", "expired").counter().count();
+
+        assertThat(basketExpiryService.expireAbandonedBaskets()).isEqualTo(2);
+
+        em.clear();
+        assertThat(statusOf(abandoned)).isEqualTo(BasketStatus.EXPIRED);
+        assertThat(statusOf(otherAbandoned)).isEqualTo(BasketStatus.EXPIRED);
+        assertThat(statusOf(recent)).isEqualTo(BasketStatus.ACTIVE);
+        assertThat(statusOf(paid)).isEqualTo(BasketStatus.PAID);
+        assertThat(meterRegistry.get(BasketExpiryService.ROWS_METER_NAME).tag("operation", "expired").counter().count())
+            .isEqualTo(expired + 2);
+        assertThat(basketExpiryService.expireAbandonedBaskets()).isZero();
+    }
+
+    @Test
+    void expireAbandonedBasketsStopsAtTheRowsPerRun() {
+        createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().plusDays(1));
+        createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().plusDays(2));
+        createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().plusDays(3));
+        applicationProperties.getBasketExpiry().setChunkSize(2);
+        applicationProperties.getBasketExpiry().setMaxRowsPerRun(2);
+
+        assertThat(basketExpiryService.expireAbandonedBaskets()).isEqualTo(2);
+        assertThat(basketExpiryService.expireAbandonedBaskets()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeExpiredBasketItems() {
+        Basket old = createBasket(BasketStatus.EXPIRED, DEFAULTS.getItemRetention().plusDays(1));
+        Basket recent = createBasket(BasketStatus.EXPIRED, DEFAULTS.getItemRetention().minusDays(1));
+        Basket active = createBasket(BasketStatus.ACTIVE, DEFAULTS.getItemRetention().plusDays(1));
+
+        assertThat(basketExpiryService.purgeExpiredBasketItems()).isEqualTo(1);
+
+        em.clear();
+        assertThat(basketRepository.findById(old.getId()).orElseThrow().getBasketItems()).isEmpty();
+        assertThat(basketRepository.findById(recent.getId()).orElseThrow().getBasketItems()).hasSize(1);
+        assertThat(basketRepository.findById(active.getId()).orElseThrow().getBasketItems()).hasSize(1);
+    }
+
+    @Test
+    void purgeExpiredBasketItemsStopsAtTheRowsPerRun() {
+        Basket old = createBasket(BasketStatus.EXPIRED, DEFAULTS.getItemRetention().plusDays(1));
+        addItem(old);
+        addItem(old);
+        applicationProperties.getBasketExpiry().setChunkSize(2);
+        applicationProperties.getBasketExpiry().setMaxRowsPerRun(2);
+
+        // The items of a single basket are deleted across runs
+        assertThat(basketExpiryService.purgeExpiredBasketItems()).isEqualTo(2);
+        assertThat(basketExpiryService.purgeExpiredBasketItems()).isEqualTo(1);
+
+        em.clear();
+        assertThat(basketRepository.findById(old.getId()).orElseThrow().getBasketItems()).isEmpty();
+    }
+
+    @Test
+    void keepOrderedBasketsAndTheirItems() {
+        Basket ordered = createBasket(BasketStatus.ACTIVE, DEFAULTS.getTtl().plusDays(1));
+        order(ordered);
+        Basket orderedExpired = createBasket(BasketStatus.EXPIRED, DEFAULTS.getItemRetention().plusDays(1));
+        order(orderedExpired);
+
+        assertThat(basketExpiryService.expireAbandonedBaskets()).isZero();
+        assertThat(basketExpiryService.purgeExpiredBasketItems()).isZero();
+
+        em.clear();
+        assertThat(statusOf(ordered)).isEqualTo(BasketStatus.ACTIVE);
+        assertThat(basketRepository.findById(ordered.getId()).orElseThrow().getBasketItems()).hasSize(1);
+        assertThat(basketRepository.findById(orderedExpired.getId()).orElseThrow().getBasketItems()).hasSize(1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.smartiq.pim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.enumeration.BasketStatus;
+import com.smartiq.pim.repository.BasketItemRepository;
+import com.smartiq.pim.repository.BasketRepository;
+import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link BasketService}.
+ * <p>
+ * Not transactional: the repair job commits each of its batches in its own transaction.
+ */
+@IntegrationTest
+class BasketServiceIT {
+
+    @Autowired
+    private BasketService basketService;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @Autowired
+    private BasketItemRepository basketItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActiveBasketCache activeBasketCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+
+    private Product otherProduct;
+
+    @AfterEach
+    public void cleanup() {
+        basketItemRepository.deleteAll();
+        basketRepository.deleteAll();
+        if (product != null) {
+            productRepository.delete(product);
+        }
+        if (otherProduct != null) {
+            productRepository.delete(otherProduct);
+        }
+    }
+
+    private Basket createBasket(BasketStatus status, BigDecimal totalCost, BigDecimal itemTotalCost) {
+        Basket basket = basketRepository.save(
+            new Basket()
+                .createDate(LocalDate.now())
+                .status(status)
+                .totalCost(totalCost)
+                .user(userRepository.findOneByLogin("user").orElseThrow())
+        );
+        basketItemRepository.save(new BasketItem().quantity(1).totalCost(itemTotalCost).product(product).basket(basket));
+        return basket;
+    }
+
+    @Test
+    void repairActiveBasketTotalsRecomputesDriftedTotals() {
+        product = productRepository.save(new Product().name("name").price(10.0).stock(100));
+        Basket drifted = createBasket(BasketStatus.ACTIVE, new BigDecimal("9.99"), new BigDecimal("10.00"));
+        Basket consistent = createBasket(BasketStatus.ACTIVE, new BigDecimal("10.00"), new BigDecimal("10.00"));
+        Basket paid = createBasket(BasketStatus.PAID, new BigDecimal("9.99"), new BigDecimal("10.00"));
+
+        assertThat(basketService.repairActiveBasketTotals()).isEqualTo(1);
+
+        assertThat(basketRepository.findById(drifted.getId()).orElseThrow().getTotalCost()).isEqualByComparingTo("10.00");
+        assertThat(basketRepository.findById(consistent.getId()).orElseThrow().getTotalCost()).isEqualByComparingTo("10.00");
+        assertThat(basketRepository.findById(paid.getId()).orElseThrow().getTotalCost()).isEqualByComparingTo("9.99");
+        assertThat(basketService.repairActiveBasketTotals()).isZero();
+    }
+
+    @Test
+    void addItemAppliesTheTotalOfTheDatabaseRatherThanTheCachedOne() {
+        product = productRepository.save(new Product().name("name").price(10.0).stock(100));
+        Basket basket = createBasket(BasketStatus.ACTIVE, new BigDecimal("10.00"), new BigDecimal("10.00"));
+        activeBasketCache.put(basket.getUser().getId(), basket.getId());
+        basketService.getOrCreateActiveBasket("user");
+        // Another instance changed the total, and its eviction of the cached basket has not arrived yet
+        jdbcTemplate.update("update basket set total_cost = 25.00 where id = ?", basket.getId());
+
+        assertThat(basketService.addItem("user", product.getId()).orElseThrow().getTotalCost()).isEqualByComparingTo("35.00");
+        assertThat(jdbcTemplate.queryForObject("select total_cost from basket where id = ?", BigDecimal.class, basket.getId()))
+            .isEqualByComparingTo("35.00");
+    }
+
+    @Test
+    void basketTotalIsTheSumOfTheRoundedItemTotals() {
+        product = productRepository.save(new Product().name("name").price(0.125).stock(100));
+        otherProduct = productRepository.save(new Product().name("other").price(0.125).stock(100));
+
+        basketService.addItem("user", product.getId());
+        Basket basket = basketService.addItem("user", otherProduct.getId()).orElseThrow();
+
+        assertThat(basket.getTotalCost()).isEqualByComparingTo("0.26");
+        // Nothing to repair
+        assertThat(basketService.repairActiveBasketTotals()).isZero();
+    }
+}
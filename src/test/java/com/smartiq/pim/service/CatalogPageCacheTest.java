@@ -0,0 +1,164 @@
+package com.smartiq.pim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartiq.pim.domain.Category;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.service.CatalogPageCache.CachedPage;
+import com.smartiq.pim.service.event.EntityChangedEvent;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+class CatalogPageCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("name"));
+    private static final Pageable SECOND_PAGE = PageRequest.of(1, 20, Sort.by("name"));
+    private static final Pageable BY_ID = PageRequest.of(0, 20, Sort.by("id"));
+
+    private MeterRegistry meterRegistry;
+
+    private CatalogPageCache catalogPageCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogPageCache = new CatalogPageCache(new ConcurrentMapCacheManager(CatalogPageCache.CACHE_NAME), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testKeyIsNormalized() {
+        assertThat(CatalogPageCache.key(PageRequest.of(0, 20))).isEqualTo("page=0&size=20&sort=");
+        assertThat(CatalogPageCache.key(PageRequest.of(2, 10, Sort.by(Sort.Order.desc("price").ignoreCase(), Sort.Order.asc("id")))))
+            .isEqualTo("page=2&size=10&sort=price:DESC:ignorecase,id:ASC");
+    }
+
+    @Test
+    void testHitsAndMissesAreCounted() {
+        get(FIRST_PAGE, 1L);
+        get(FIRST_PAGE, 1L);
+        get(SECOND_PAGE, 2L);
+
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get(CatalogPageCache.REQUESTS_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CatalogPageCache.REQUESTS_METER_NAME).tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testUpdateEvictsPagesListingTheProduct() {
+        get(FIRST_PAGE, 1L);
+        get(SECOND_PAGE, 2L);
+
+        catalogPageCache.onEntityChanged(new EntityChangedEvent(Product.class, 1L, ChangeType.UPDATE, Set.of("description")));
+        get(FIRST_PAGE, 1L);
+        get(SECOND_PAGE, 2L);
+
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get(CatalogPageCache.EVICTIONS_METER_NAME).tag("scope", "page").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpdateOfSortPropertyEvictsPagesSortedOnIt() {
+        get(FIRST_PAGE, 1L);
+        get(SECOND_PAGE, 2L);
+        get(BY_ID, 1L);
+
+        catalogPageCache.onEntityChanged(new EntityChangedEvent(Product.class, 3L, ChangeType.UPDATE, Set.of("name")));
+        get(FIRST_PAGE, 1L);
+        get(SECOND_PAGE, 2L);
+        get(BY_ID, 1L);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void testInsertAndCategoryChangesClearAllPages() {
+        get(FIRST_PAGE, 1L);
+        catalogPageCache.onEntityChanged(new EntityChangedEvent(Product.class, 3L, ChangeType.INSERT, Collections.emptySet()));
+        get(FIRST_PAGE, 1L);
+        catalogPageCache.onEntityChangeCompleted(new EntityChangedEvent(Category.class, 1L, ChangeType.UPDATE, Set.of("name")));
+        get(FIRST_PAGE, 1L);
+
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get(CatalogPageCache.EVICTIONS_METER_NAME).tag("scope", "all").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testPageLoadedDuringAChangeIsNotCached() {
+        catalogPageCache.get(
+            FIRST_PAGE,
+            () -> {
+                catalogPageCache.onEntityChanged(new EntityChangedEvent(Product.class, 1L, ChangeType.UPDATE, Set.of("stock")));
+                return page(1L);
+            }
+        );
+        get(FIRST_PAGE, 1L);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testIndexIsPrunedWhenThePageIsEvicted() throws InterruptedException {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        javax.cache.CacheManager jCacheManager = cachingProvider.getCacheManager(
+            URI.create("urn:" + getClass().getName()),
+            ConfigurationBuilder.newConfigurationBuilder().build()
+        );
+        try {
+            jCacheManager.createCache(
+                CatalogPageCache.CACHE_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1))
+                )
+            );
+            JCacheCacheManager cacheManager = new JCacheCacheManager(jCacheManager);
+            cacheManager.afterPropertiesSet();
+            catalogPageCache = new CatalogPageCache(cacheManager, meterRegistry);
+
+            get(FIRST_PAGE, 1L);
+            assertThat(catalogPageCache.indexSize()).isEqualTo(2);
+            get(SECOND_PAGE, 2L);
+
+            // The first page is evicted, only the product and sort property of the second one are left
+            for (int i = 0; i < 100 && catalogPageCache.indexSize() > 2; i++) {
+                // The eviction is notified asynchronously
+                Thread.sleep(10);
+            }
+            assertThat(catalogPageCache.indexSize()).isEqualTo(2);
+        } finally {
+            jCacheManager.close();
+        }
+    }
+
+    private void get(Pageable pageable, Long productId) {
+        catalogPageCache.get(pageable, () -> page(productId));
+    }
+
+    private CachedPage page(Long productId) {
+        loads.incrementAndGet();
+        return new CachedPage(new byte[0], 1, List.of(productId));
+    }
+}
@@ -0,0 +1,152 @@
+package com.smartiq.pim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.config.OmClientConfiguration;
+import com.smartiq.pim.domain.OmOutboxMessage;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageType;
+import com.smartiq.pim.service.dto.OmBatchItemResultDTO;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OmIntegrationServiceTest {
+
+    private static final String AUTHORIZATION = "Bearer token";
+
+    private MockWebServer server;
+
+    private MeterRegistry meterRegistry;
+
+    private OmIntegrationService omIntegrationService;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.setOrderManagementAppLink(server.url("").toString().replaceAll("/$", ""));
+        applicationProperties.getOmClient().setSlidingWindowSize(4);
+        meterRegistry = new SimpleMeterRegistry();
+        omIntegrationService =
+            new OmIntegrationService(
+                applicationProperties,
+                new OmClientConfiguration().omHttpClient(applicationProperties, meterRegistry),
+                new ObjectMapper(),
+                meterRegistry
+            );
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private OmOutboxMessage message(OmOutboxMessageType type) {
+        return new OmOutboxMessage().idempotencyKey("key-" + type).type(type).orderId(42L).payload("{\"orderId\":42}");
+    }
+
+    @Test
+    void testSendReusesConnectionsAndTimesEachEndpoint() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse());
+
+        omIntegrationService.send(message(OmOutboxMessageType.CREATE_ORDER), AUTHORIZATION);
+        omIntegrationService.send(message(OmOutboxMessageType.CANCEL_ORDER), AUTHORIZATION);
+
+        RecordedRequest create = server.takeRequest();
+        assertThat(create.getMethod()).isEqualTo("POST");
+        assertThat(create.getPath()).isEqualTo("/api/orders");
+        assertThat(create.getHeader("Authorization")).isEqualTo(AUTHORIZATION);
+        assertThat(create.getHeader(OmIntegrationService.IDEMPOTENCY_KEY_HEADER)).isEqualTo("key-CREATE_ORDER");
+        assertThat(create.getBody().readUtf8()).isEqualTo("{\"orderId\":42}");
+        RecordedRequest cancel = server.takeRequest();
+        assertThat(cancel.getPath()).isEqualTo("/api/orders/cancel/42");
+        // The second call was made on the pooled connection of the first one
+        assertThat(cancel.getSequenceNumber()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(OmClientConfiguration.REQUESTS_METER_NAME).tag("uri", "/api/orders").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(OmClientConfiguration.REQUESTS_METER_NAME).tag("uri", "/api/orders/cancel/{id}").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testCircuitBreakerOpensOnServerErrors() {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            assertThatThrownBy(() -> omIntegrationService.send(message(OmOutboxMessageType.CANCEL_ORDER), AUTHORIZATION))
+                .isInstanceOf(IOException.class);
+        }
+
+        assertThatThrownBy(() -> omIntegrationService.send(message(OmOutboxMessageType.CANCEL_ORDER), AUTHORIZATION))
+            .isInstanceOf(CallNotPermittedException.class);
+        assertThat(server.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void testCircuitBreakerIgnoresRefusedCalls() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(400));
+            assertThatThrownBy(() -> omIntegrationService.send(message(OmOutboxMessageType.CREATE_ORDER), AUTHORIZATION))
+                .isInstanceOf(OmIntegrationService.RejectedCallException.class);
+        }
+
+        server.enqueue(new MockResponse());
+        omIntegrationService.send(message(OmOutboxMessageType.CREATE_ORDER), AUTHORIZATION);
+        assertThat(server.getRequestCount()).isEqualTo(5);
+    }
+
+    @Test
+    void testCircuitBreakerOpensOnAuthenticationFailures() {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(i % 2 == 0 ? 401 : 403));
+            assertThatThrownBy(() -> omIntegrationService.send(message(OmOutboxMessageType.CREATE_ORDER), AUTHORIZATION))
+                .isInstanceOf(IOException.class)
+                .isNotInstanceOf(OmIntegrationService.RejectedCallException.class);
+        }
+
+        assertThatThrownBy(() -> omIntegrationService.send(message(OmOutboxMessageType.CREATE_ORDER), AUTHORIZATION))
+            .isInstanceOf(CallNotPermittedException.class);
+        assertThat(server.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void testSendBatchReturnsTheOutcomeOfEachItem() throws Exception {
+        server.enqueue(
+            new MockResponse()
+                .setBody(
+                    "[{\"idempotencyKey\":\"key-CREATE_ORDER\",\"status\":201}," +
+                    "{\"idempotencyKey\":\"key-CANCEL_ORDER\",\"status\":409,\"error\":\"Already shipped\"}]"
+                )
+        );
+
+        Map<String, OmBatchItemResultDTO> results = omIntegrationService.sendBatch(
+            List.of(message(OmOutboxMessageType.CREATE_ORDER), message(OmOutboxMessageType.CANCEL_ORDER).payload(null)),
+            AUTHORIZATION
+        );
+
+        RecordedRequest batch = server.takeRequest();
+        assertThat(batch.getPath()).isEqualTo("/api/orders/batch");
+        assertThat(batch.getBody().readUtf8())
+            .isEqualTo(
+                "[{\"idempotencyKey\":\"key-CREATE_ORDER\",\"type\":\"CREATE_ORDER\",\"orderId\":42,\"order\":{\"orderId\":42}}," +
+                "{\"idempotencyKey\":\"key-CANCEL_ORDER\",\"type\":\"CANCEL_ORDER\",\"orderId\":42}]"
+            );
+        assertThat(results.get("key-CREATE_ORDER").isSuccessful()).isTrue();
+        assertThat(results.get("key-CANCEL_ORDER").isSuccessful()).isFalse();
+        assertThat(results.get("key-CANCEL_ORDER").getError()).isEqualTo("Already shipped");
+    }
+}
@@ -0,0 +1,239 @@
+package com.smartiq.pim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.domain.OmOutboxMessage;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageStatus;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageType;
+import com.smartiq.pim.repository.OmOutboxMessageRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.security.jwt.TokenProvider;
+import com.smartiq.pim.service.dto.OmBatchItemResultDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link OmOutboxDispatcher}.
+ */
+@IntegrationTest
+@Transactional
+class OmOutboxDispatcherIT {
+
+    private static final Long ORDER_ID = 1000L;
+
+    private static final Duration DEFAULT_BATCH_MAX_WAIT = new ApplicationProperties.OmOutbox.Batch().getMaxWait();
+
+    @Autowired
+    private OmOutboxDispatcher omOutboxDispatcher;
+
+    @Autowired
+    private OmOutboxService omOutboxService;
+
+    @Autowired
+    private OmOutboxMessageRepository omOutboxMessageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @MockBean
+    private OmIntegrationService omIntegrationService;
+
+    @AfterEach
+    public void resetBatch() {
+        applicationProperties.getOmOutbox().getBatch().setEnabled(false);
+        applicationProperties.getOmOutbox().getBatch().setMaxWait(DEFAULT_BATCH_MAX_WAIT);
+    }
+
+    private OmOutboxMessage createMessage(OmOutboxMessageType type) {
+        return createMessage(type, ORDER_ID);
+    }
+
+    private OmOutboxMessage createMessage(OmOutboxMessageType type, Long orderId) {
+        Instant now = Instant.now();
+        return omOutboxMessageRepository.saveAndFlush(
+            new OmOutboxMessage()
+                .idempotencyKey(UUID.randomUUID().toString())
+                .type(type)
+                .orderId(orderId)
+                .userLogin("user")
+                .status(OmOutboxMessageStatus.PENDING)
+                .attempts(0)
+                .nextAttemptDate(now)
+                .createdDate(now)
+        );
+    }
+
+    @Test
+    void dispatchSendsDueMessages() throws IOException {
+        OmOutboxMessage message = createMessage(OmOutboxMessageType.CREATE_ORDER);
+
+        assertThat(omOutboxDispatcher.dispatch()).isEqualTo(1);
+
+        verify(omIntegrationService).send(any(OmOutboxMessage.class), startsWith("Bearer "));
+        OmOutboxMessage sent = omOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(OmOutboxMessageStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getSentDate()).isNotNull();
+        assertThat(omOutboxDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    void dispatchRetriesFailedMessagesLaterAndInOrder() throws IOException {
+        OmOutboxMessage create = createMessage(OmOutboxMessageType.CREATE_ORDER);
+        OmOutboxMessage cancel = createMessage(OmOutboxMessageType.CANCEL_ORDER);
+        doThrow(new IOException("Order Management is down")).when(omIntegrationService).send(any(OmOutboxMessage.class), any());
+        double retried = meterRegistry.get(OmOutboxDispatcher.DELIVERIES_METER_NAME).tag("result", "retried").counter().count();
+
+        assertThat(omOutboxDispatcher.dispatch()).isEqualTo(1);
+
+        OmOutboxMessage failed = omOutboxMessageRepository.findById(create.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OmOutboxMessageStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptDate()).isAfter(Instant.now());
+        assertThat(failed.getLastError()).contains("Order Management is down");
+        assertThat(omOutboxMessageRepository.findById(cancel.getId()).orElseThrow().getAttempts()).isZero();
+        assertThat(meterRegistry.get(OmOutboxDispatcher.DELIVERIES_METER_NAME).tag("result", "retried").counter().count())
+            .isEqualTo(retried + 1);
+        assertThat(meterRegistry.get(OmOutboxDispatcher.BACKLOG_METER_NAME).gauge().value()).isEqualTo(2);
+
+        assertThat(omOutboxDispatcher.dispatch()).isZero();
+        verify(omIntegrationService, times(1)).send(any(OmOutboxMessage.class), any());
+    }
+
+    @Test
+    void dispatchGivesUpOnRejectedMessages() throws IOException {
+        OmOutboxMessage message = createMessage(OmOutboxMessageType.CREATE_ORDER);
+        doThrow(new OmIntegrationService.RejectedCallException(422)).when(omIntegrationService).send(any(OmOutboxMessage.class), any());
+        double dead = meterRegistry.get(OmOutboxDispatcher.DELIVERIES_METER_NAME).tag("result", "dead").counter().count();
+
+        assertThat(omOutboxDispatcher.dispatch()).isEqualTo(1);
+
+        OmOutboxMessage rejected = omOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(rejected.getStatus()).isEqualTo(OmOutboxMessageStatus.DEAD);
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getLastError()).contains("422");
+        assertThat(meterRegistry.get(OmOutboxDispatcher.DELIVERIES_METER_NAME).tag("result", "dead").counter().count())
+            .isEqualTo(dead + 1);
+    }
+
+    @Test
+    void claimReservesMessagesForTheCallsBeforeThem() {
+        OmOutboxMessage first = createMessage(OmOutboxMessageType.CREATE_ORDER, ORDER_ID);
+        OmOutboxMessage second = createMessage(OmOutboxMessageType.CREATE_ORDER, ORDER_ID + 1);
+        Duration lease = applicationProperties.getOmOutbox().getLease();
+        Duration callTimeout = applicationProperties.getOmClient().getCallTimeout();
+        Instant before = Instant.now();
+
+        assertThat(omOutboxService.claimDueMessages()).extracting(OmOutboxMessage::getId).contains(first.getId(), second.getId());
+
+        // Sent one by one, the second message may wait for the call of the first one
+        assertThat(omOutboxMessageRepository.findById(first.getId()).orElseThrow().getNextAttemptDate())
+            .isAfterOrEqualTo(before.plus(lease).plus(callTimeout));
+        assertThat(omOutboxMessageRepository.findById(second.getId()).orElseThrow().getNextAttemptDate())
+            .isAfterOrEqualTo(before.plus(lease).plus(callTimeout.multipliedBy(2)));
+    }
+
+    @Test
+    void dispatchPostponesMessagesWhileOrderManagementIsUnavailable() throws IOException {
+        OmOutboxMessage message = createMessage(OmOutboxMessageType.CREATE_ORDER);
+        doThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults(OmIntegrationService.RESILIENCE_NAME)))
+            .when(omIntegrationService)
+            .send(any(OmOutboxMessage.class), any());
+
+        assertThat(omOutboxDispatcher.dispatch()).isZero();
+
+        OmOutboxMessage postponed = omOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(postponed.getStatus()).isEqualTo(OmOutboxMessageStatus.PENDING);
+        assertThat(postponed.getAttempts()).isZero();
+        assertThat(postponed.getNextAttemptDate()).isAfter(Instant.now());
+    }
+
+    @Test
+    void dispatchSendsBatchesOnceTheWindowHasElapsed() throws IOException {
+        OmOutboxMessage create = createMessage(OmOutboxMessageType.CREATE_ORDER, ORDER_ID);
+        OmOutboxMessage cancel = createMessage(OmOutboxMessageType.CANCEL_ORDER, ORDER_ID + 1);
+        OmOutboxMessage busy = createMessage(OmOutboxMessageType.CANCEL_ORDER, ORDER_ID + 2);
+        OmOutboxMessage forbidden = createMessage(OmOutboxMessageType.CANCEL_ORDER, ORDER_ID + 3);
+        when(omIntegrationService.sendBatch(anyList(), startsWith("Bearer ")))
+            .thenReturn(
+                Map.of(
+                    create.getIdempotencyKey(),
+                    result(create, 201),
+                    cancel.getIdempotencyKey(),
+                    result(cancel, 409),
+                    busy.getIdempotencyKey(),
+                    result(busy, 503),
+                    forbidden.getIdempotencyKey(),
+                    result(forbidden, 403)
+                )
+            );
+        applicationProperties.getOmOutbox().getBatch().setEnabled(true);
+        applicationProperties.getOmOutbox().getBatch().setMaxWait(Duration.ofHours(1));
+
+        // Neither full nor old enough
+        assertThat(omOutboxDispatcher.dispatch()).isZero();
+
+        applicationProperties.getOmOutbox().getBatch().setMaxWait(Duration.ZERO);
+        long batches = meterRegistry.get(OmOutboxDispatcher.BATCH_SIZE_METER_NAME).summary().count();
+
+        assertThat(omOutboxDispatcher.dispatch()).isEqualTo(4);
+
+        assertThat(omOutboxMessageRepository.findById(create.getId()).orElseThrow().getStatus()).isEqualTo(OmOutboxMessageStatus.SENT);
+        OmOutboxMessage refused = omOutboxMessageRepository.findById(cancel.getId()).orElseThrow();
+        assertThat(refused.getStatus()).isEqualTo(OmOutboxMessageStatus.DEAD);
+        assertThat(refused.getAttempts()).isEqualTo(1);
+        assertThat(refused.getLastError()).contains("409");
+        OmOutboxMessage failed = omOutboxMessageRepository.findById(busy.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OmOutboxMessageStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("503");
+        // A credential refused by Order Management is retried, until it is fixed
+        OmOutboxMessage unauthorized = omOutboxMessageRepository.findById(forbidden.getId()).orElseThrow();
+        assertThat(unauthorized.getStatus()).isEqualTo(OmOutboxMessageStatus.PENDING);
+        assertThat(unauthorized.getLastError()).contains("403");
+        assertThat(meterRegistry.get(OmOutboxDispatcher.BATCH_SIZE_METER_NAME).summary().count()).isEqualTo(batches + 1);
+        verify(omIntegrationService, times(0)).send(any(OmOutboxMessage.class), any());
+
+        // The batch is sent with a token granting no administration right
+        ArgumentCaptor<String> authorization = ArgumentCaptor.forClass(String.class);
+        verify(omIntegrationService).sendBatch(anyList(), authorization.capture());
+        assertThat(tokenProvider.getAuthentication(authorization.getValue().substring("Bearer ".length())).getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.OM_BATCH_CLIENT);
+    }
+
+    private static OmBatchItemResultDTO result(OmOutboxMessage message, int status) {
+        OmBatchItemResultDTO result = new OmBatchItemResultDTO();
+        result.setIdempotencyKey(message.getIdempotencyKey());
+        result.setStatus(status);
+        return result;
+    }
+}
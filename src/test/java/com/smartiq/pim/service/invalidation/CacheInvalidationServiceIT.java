@@ -0,0 +1,251 @@
+package com.smartiq.pim.service.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.service.CatalogPageCache;
+import com.smartiq.pim.service.CatalogPageCache.CachedPage;
+import com.smartiq.pim.service.CatalogVersion;
+import com.smartiq.pim.service.UserService;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CacheInvalidationService}, over the {@link LoopbackCacheInvalidationTransport}.
+ * <p>
+ * Not transactional: invalidations are sent once their transaction has committed.
+ */
+@IntegrationTest
+class CacheInvalidationServiceIT {
+
+    private static final String OTHER_INSTANCE = "other-instance";
+
+    private static final String LOGIN = "cache-invalidation-user";
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private LoopbackCacheInvalidationTransport transport;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogPageCache catalogPageCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<CacheInvalidation> sent = new CopyOnWriteArrayList<>();
+
+    private final Consumer<List<CacheInvalidation>> recorder = sent::addAll;
+
+    private Product product;
+
+    private User user;
+
+    @BeforeEach
+    public void subscribe() {
+        transport.subscribe(recorder);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transport.unsubscribe(recorder);
+        if (product != null && product.getId() != null) {
+            productRepository.deleteById(product.getId());
+        }
+        if (user != null && user.getId() != null) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void evictsTheCacheKeysEvictedByAnotherInstance() {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        usersByLogin.put(LOGIN, new User());
+        CacheInvalidationService otherInstance = new CacheInvalidationService(
+            transport,
+            entityManagerFactory,
+            cacheManager,
+            catalogPageCache,
+            catalogVersion,
+            new SimpleMeterRegistry()
+        );
+        try {
+            otherInstance.evictOnPeers(UserRepository.USERS_BY_LOGIN_CACHE, LOGIN);
+        } finally {
+            otherInstance.unsubscribe();
+        }
+
+        assertThat(usersByLogin.get(LOGIN)).isNull();
+    }
+
+    @Test
+    void sendsTheChangesOfCachedEntitiesOnceCommitted() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        product =
+            transactionTemplate.execute(status -> {
+                Product saved = productRepository.saveAndFlush(new Product().name("name").price(10.0).stock(100));
+                assertThat(sent).isEmpty();
+                return saved;
+            });
+        productRepository.save(product.price(12.0));
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent).extracting(CacheInvalidation::getEntityName).containsOnly(Product.class.getName());
+        assertThat(sent).extracting(CacheInvalidation::getEntityId).containsOnly(product.getId());
+        assertThat(sent).extracting(CacheInvalidation::getChangeType).containsExactly(ChangeType.INSERT, ChangeType.UPDATE);
+        assertThat(sent.get(1).getChangedProperties()).containsExactly("price");
+    }
+
+    @Test
+    void sendsNothingForARollback() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                productRepository.saveAndFlush(new Product().name("name").price(10.0).stock(100));
+                status.setRollbackOnly();
+            });
+
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void sendsTheUserCacheEvictions() {
+        user = new User();
+        user.setLogin(LOGIN);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setEmail(LOGIN + "@localhost");
+        user.setActivationKey("cache-invalidation");
+        user = userRepository.saveAndFlush(user);
+        sent.clear();
+
+        userService.activateRegistration("cache-invalidation");
+
+        assertThat(sent)
+            .contains(
+                CacheInvalidation.ofCacheKey(sent.get(0).getOrigin(), UserRepository.USERS_BY_LOGIN_CACHE, LOGIN),
+                CacheInvalidation.ofCacheKey(sent.get(0).getOrigin(), UserRepository.USERS_BY_EMAIL_CACHE, LOGIN + "@localhost")
+            );
+        assertThat(sent)
+            .filteredOn(CacheInvalidation::isEntityChange)
+            .extracting(CacheInvalidation::getEntityId)
+            .containsOnly(user.getId());
+    }
+
+    @Test
+    void sendsTheUserCacheEvictionsOfAnUpgradedPasswordHash() {
+        user = new User();
+        user.setLogin(LOGIN);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setEmail(LOGIN + "@localhost");
+        user = userRepository.saveAndFlush(user);
+        sent.clear();
+
+        userDetailsPasswordService.updatePassword(
+            org.springframework.security.core.userdetails.User
+                .withUsername(LOGIN)
+                .password(user.getPassword())
+                .authorities(AuthoritiesConstants.USER)
+                .build(),
+            RandomStringUtils.random(60)
+        );
+
+        assertThat(sent)
+            .contains(
+                CacheInvalidation.ofCacheKey(sent.get(0).getOrigin(), UserRepository.USERS_BY_LOGIN_CACHE, LOGIN),
+                CacheInvalidation.ofCacheKey(sent.get(0).getOrigin(), UserRepository.USERS_BY_EMAIL_CACHE, LOGIN + "@localhost")
+            );
+    }
+
+    @Test
+    void sendsTheEvictionOfTheRegionsChangedInBulk() {
+        cacheInvalidationService.evictEntityRegions(Basket.class);
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).isEntityRegionEviction()).isTrue();
+        assertThat(sent.get(0).getEntityName()).isEqualTo(Basket.class.getName());
+    }
+
+    @Test
+    void evictsTheCatalogPagesOfAProductChangedByAnotherInstance() {
+        Pageable pageable = PageRequest.of(99, 7);
+        AtomicInteger loads = new AtomicInteger();
+        catalogPageCache.get(pageable, () -> loadPage(loads));
+        catalogPageCache.get(pageable, () -> loadPage(loads));
+        assertThat(loads).hasValue(1);
+
+        cacheInvalidationService.receive(
+            List.of(CacheInvalidation.ofEntity(OTHER_INSTANCE, Product.class.getName(), -42L, ChangeType.UPDATE, Set.of("price")))
+        );
+
+        catalogPageCache.get(pageable, () -> loadPage(loads));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void ignoresTheInvalidationsOfUnknownEntitiesAndCaches() {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        usersByLogin.put(LOGIN, new User());
+
+        cacheInvalidationService.receive(
+            List.of(
+                CacheInvalidation.ofEntity(OTHER_INSTANCE, String.class.getName(), 1L, ChangeType.DELETE, Set.of()),
+                CacheInvalidation.ofEntityRegion(OTHER_INSTANCE, String.class.getName()),
+                CacheInvalidation.ofCacheKey(OTHER_INSTANCE, "unknownCache", LOGIN)
+            )
+        );
+
+        assertThat(usersByLogin.get(LOGIN)).isNotNull();
+        usersByLogin.evict(LOGIN);
+    }
+
+    private static CachedPage loadPage(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new CachedPage(new byte[0], 1, List.of(-42L));
+    }
+}
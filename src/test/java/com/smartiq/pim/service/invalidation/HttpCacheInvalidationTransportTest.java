@@ -0,0 +1,137 @@
+package com.smartiq.pim.service.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartiq.pim.config.ApplicationProperties;
+import com.smartiq.pim.management.SecurityMetersService;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.security.jwt.TokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import tech.jhipster.config.JHipsterProperties;
+
+class HttpCacheInvalidationTransportTest {
+
+    private static final String SERVICE_ID = "pim";
+
+    private static final String LOCAL_INSTANCE_ID = "pim:local";
+
+    private MockWebServer server;
+
+    private MeterRegistry meterRegistry;
+
+    private TokenProvider tokenProvider;
+
+    private HttpCacheInvalidationTransport transport;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(meterRegistry));
+        List<ServiceInstance> instances = List.of(
+            new DefaultServiceInstance(LOCAL_INSTANCE_ID, SERVICE_ID, "localhost", 1, false),
+            new DefaultServiceInstance("pim:other", SERVICE_ID, server.getHostName(), server.getPort(), false)
+        );
+        transport =
+            new HttpCacheInvalidationTransport(
+                new StaticDiscoveryClient(instances),
+                SERVICE_ID,
+                LOCAL_INSTANCE_ID,
+                tokenProvider,
+                new ObjectMapper(),
+                new ApplicationProperties().getCache().getInvalidation(),
+                meterRegistry
+            );
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        transport.shutdown();
+        server.shutdown();
+    }
+
+    @Test
+    void postsTheInvalidationsToTheOtherInstances() throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        transport.send(List.of(CacheInvalidation.ofCacheKey("origin", "usersByLogin", "user")));
+        transport.shutdown();
+
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.getPath()).isEqualTo(HttpCacheInvalidationTransport.API_PATH);
+        assertThat(request.getBody().readUtf8()).contains("\"cacheName\":\"usersByLogin\"").contains("\"key\":\"user\"");
+        String token = request.getHeader("Authorization").substring("Bearer ".length());
+        assertThat(tokenProvider.getAuthentication(token).getAuthorities())
+            .extracting(Object::toString)
+            .containsExactly(AuthoritiesConstants.CACHE_PEER);
+        assertThat(server.getRequestCount()).isEqualTo(1);
+        assertThat(count("sent")).isEqualTo(1);
+        assertThat(count("failed")).isZero();
+    }
+
+    @Test
+    void countsTheInvalidationsAnInstanceDidNotAccept() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        transport.send(
+            List.of(
+                CacheInvalidation.ofCacheKey("origin", "usersByLogin", "user"),
+                CacheInvalidation.ofCacheKey("origin", "usersByEmail", "user@localhost")
+            )
+        );
+        transport.shutdown();
+
+        assertThat(count("failed")).isEqualTo(2);
+        assertThat(count("sent")).isZero();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(CacheInvalidationService.MESSAGES_METER_NAME).tag("result", result).counter().count();
+    }
+
+    private static class StaticDiscoveryClient implements DiscoveryClient {
+
+        private final List<ServiceInstance> instances;
+
+        StaticDiscoveryClient(List<ServiceInstance> instances) {
+            this.instances = instances;
+        }
+
+        @Override
+        public String description() {
+            return "Static";
+        }
+
+        @Override
+        public List<ServiceInstance> getInstances(String serviceId) {
+            return instances;
+        }
+
+        @Override
+        public List<String> getServices() {
+            return List.of(SERVICE_ID);
+        }
+    }
+}
@@ -35,6 +35,14 @@ import org.springframework.transaction.annotation.Transactional;
 @AutoConfigureMockMvc
 @WithMockUser(value = TEST_USER_LOGIN)
 @IntegrationTest
+@QueryBudget(value = "GET /api/account", statements = 1)
+@QueryBudget(value = "POST /api/account", statements = 4)
+@QueryBudget(value = "POST /api/account/change-password", statements = 3)
+@QueryBudget(value = "POST /api/account/reset-password/finish", statements = 3)
+@QueryBudget(value = "POST /api/account/reset-password/init", statements = 2)
+@QueryBudget(value = "GET /api/activate", statements = 2)
+@QueryBudget(value = "GET /api/authenticate", statements = 0)
+@QueryBudget(value = "POST /api/register", statements = 5)
 class AccountResourceIT {
 
     static final String TEST_USER_LOGIN = "test";
@@ -29,6 +29,13 @@ import org.springframework.transaction.annotation.Transactional;
 @IntegrationTest
 @AutoConfigureMockMvc
 @WithMockUser
+@QueryBudget(value = "GET /api/addresses", statements = 1)
+@QueryBudget(value = "POST /api/addresses", statements = 2)
+@QueryBudget(value = "GET /api/addresses/getAddressesOfCurrentUser", statements = 2)
+@QueryBudget(value = "GET /api/addresses/{id}", statements = 1)
+@QueryBudget(value = "PUT /api/addresses/{id}", statements = 4)
+@QueryBudget(value = "PATCH /api/addresses/{id}", statements = 3)
+@QueryBudget(value = "DELETE /api/addresses/{id}", statements = 2)
 class AddressResourceIT {
 
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
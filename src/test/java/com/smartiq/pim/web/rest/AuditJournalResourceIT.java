@@ -0,0 +1,96 @@
+package com.smartiq.pim.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.domain.AuditJournalEntry;
+import com.smartiq.pim.domain.enumeration.AuditChangeType;
+import com.smartiq.pim.repository.AuditJournalEntryRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AuditJournalResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@QueryBudget(value = "GET /api/admin/audit-journal", statements = 2)
+class AuditJournalResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/audit-journal";
+
+    private static final Long ENTITY_ID = -1000L;
+
+    @Autowired
+    private AuditJournalEntryRepository auditJournalEntryRepository;
+
+    @Autowired
+    private MockMvc restAuditJournalMockMvc;
+
+    private AuditJournalEntry entry;
+
+    @BeforeEach
+    public void initTest() {
+        entry =
+            new AuditJournalEntry()
+                .entityType("Product")
+                .entityId(ENTITY_ID)
+                .changeType(AuditChangeType.UPDATE)
+                .changedProperties("price,stock")
+                .principal("audit-journal-admin")
+                .changedDate(Instant.now());
+    }
+
+    @Test
+    @Transactional
+    void getAuditJournalOfAnEntity() throws Exception {
+        auditJournalEntryRepository.saveAndFlush(entry);
+        auditJournalEntryRepository.saveAndFlush(
+            new AuditJournalEntry()
+                .entityType("Product")
+                .entityId(ENTITY_ID - 1)
+                .changeType(AuditChangeType.DELETE)
+                .principal("audit-journal-admin")
+                .changedDate(Instant.now())
+        );
+
+        restAuditJournalMockMvc
+            .perform(get(ENTITY_API_URL + "?entityType=Product&entityId=" + ENTITY_ID + "&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(entry.getId().intValue())))
+            .andExpect(jsonPath("$.[*].changeType").value(hasItem("UPDATE")))
+            .andExpect(jsonPath("$.[*].changedProperties").value(hasItem("price,stock")))
+            .andExpect(jsonPath("$.[*].principal").value(hasItem("audit-journal-admin")));
+    }
+
+    @Test
+    @Transactional
+    void getAuditJournalOfAPrincipal() throws Exception {
+        auditJournalEntryRepository.saveAndFlush(entry);
+
+        restAuditJournalMockMvc
+            .perform(get(ENTITY_API_URL + "?principal=audit-journal-admin"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].entityId").value(hasItem(ENTITY_ID.intValue())));
+    }
+
+    @Test
+    @WithMockUser
+    void getAuditJournalIsForbiddenToUsers() throws Exception {
+        restAuditJournalMockMvc.perform(get(ENTITY_API_URL)).andExpect(status().isForbidden());
+    }
+}
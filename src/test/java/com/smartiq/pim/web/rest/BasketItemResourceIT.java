@@ -1,6 +1,8 @@
 package com.smartiq.pim.web.rest;
 
+import static com.smartiq.pim.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -8,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.smartiq.pim.IntegrationTest;
 import com.smartiq.pim.domain.BasketItem;
 import com.smartiq.pim.repository.BasketItemRepository;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,6 +19,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,13 +31,19 @@ import org.springframework.transaction.annotation.Transactional;
 @IntegrationTest
 @AutoConfigureMockMvc
 @WithMockUser
+@QueryBudget(value = "GET /api/basket-items", statements = 1)
+@QueryBudget(value = "POST /api/basket-items", statements = 1)
+@QueryBudget(value = "GET /api/basket-items/{id}", statements = 1)
+@QueryBudget(value = "PUT /api/basket-items/{id}", statements = 3)
+@QueryBudget(value = "PATCH /api/basket-items/{id}", statements = 3)
+@QueryBudget(value = "DELETE /api/basket-items/{id}", statements = 2)
 class BasketItemResourceIT {
 
     private static final Integer DEFAULT_QUANTITY = 1;
     private static final Integer UPDATED_QUANTITY = 2;
 
-    private static final Integer DEFAULT_TOTAL_COST = 1;
-    private static final Integer UPDATED_TOTAL_COST = 2;
+    private static final BigDecimal DEFAULT_TOTAL_COST = new BigDecimal(1);
+    private static final BigDecimal UPDATED_TOTAL_COST = new BigDecimal(2);
 
     private static final String ENTITY_API_URL = "/api/basket-items";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -93,7 +103,7 @@ class BasketItemResourceIT {
         assertThat(basketItemList).hasSize(databaseSizeBeforeCreate + 1);
         BasketItem testBasketItem = basketItemList.get(basketItemList.size() - 1);
         assertThat(testBasketItem.getQuantity()).isEqualTo(DEFAULT_QUANTITY);
-        assertThat(testBasketItem.getTotalCost()).isEqualTo(DEFAULT_TOTAL_COST);
+        assertThat(testBasketItem.getTotalCost()).isEqualByComparingTo(DEFAULT_TOTAL_COST);
     }
 
     @Test
@@ -161,7 +171,33 @@ class BasketItemResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(basketItem.getId().intValue())))
             .andExpect(jsonPath("$.[*].quantity").value(hasItem(DEFAULT_QUANTITY)))
-            .andExpect(jsonPath("$.[*].totalCost").value(hasItem(DEFAULT_TOTAL_COST)));
+            .andExpect(jsonPath("$.[*].totalCost").value(hasItem(sameNumber(DEFAULT_TOTAL_COST))));
+    }
+
+    @Test
+    @Transactional
+    void getBasketItemsAfterCursor() throws Exception {
+        // Initialize the database
+        basketItemRepository.saveAndFlush(basketItem);
+        BasketItem other = basketItemRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice
+        restBasketItemMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(basketItem.getId() - 1) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(
+                header().string(HttpHeaders.LINK, containsString("after=" + KeysetPagination.encodeCursor(basketItem.getId()) + "&size=1"))
+            )
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(basketItem.getId().intValue()));
+
+        // Get the next slice
+        restBasketItemMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(basketItem.getId()) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()));
     }
 
     @Test
@@ -177,7 +213,7 @@ class BasketItemResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(basketItem.getId().intValue()))
             .andExpect(jsonPath("$.quantity").value(DEFAULT_QUANTITY))
-            .andExpect(jsonPath("$.totalCost").value(DEFAULT_TOTAL_COST));
+            .andExpect(jsonPath("$.totalCost").value(sameNumber(DEFAULT_TOTAL_COST)));
     }
 
     @Test
@@ -214,7 +250,7 @@ class BasketItemResourceIT {
         assertThat(basketItemList).hasSize(databaseSizeBeforeUpdate);
         BasketItem testBasketItem = basketItemList.get(basketItemList.size() - 1);
         assertThat(testBasketItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
-        assertThat(testBasketItem.getTotalCost()).isEqualTo(UPDATED_TOTAL_COST);
+        assertThat(testBasketItem.getTotalCost()).isEqualByComparingTo(UPDATED_TOTAL_COST);
     }
 
     @Test
@@ -300,7 +336,7 @@ class BasketItemResourceIT {
         assertThat(basketItemList).hasSize(databaseSizeBeforeUpdate);
         BasketItem testBasketItem = basketItemList.get(basketItemList.size() - 1);
         assertThat(testBasketItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
-        assertThat(testBasketItem.getTotalCost()).isEqualTo(DEFAULT_TOTAL_COST);
+        assertThat(testBasketItem.getTotalCost()).isEqualByComparingTo(DEFAULT_TOTAL_COST);
     }
 
     @Test
@@ -330,7 +366,7 @@ class BasketItemResourceIT {
         assertThat(basketItemList).hasSize(databaseSizeBeforeUpdate);
         BasketItem testBasketItem = basketItemList.get(basketItemList.size() - 1);
         assertThat(testBasketItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
-        assertThat(testBasketItem.getTotalCost()).isEqualTo(UPDATED_TOTAL_COST);
+        assertThat(testBasketItem.getTotalCost()).isEqualByComparingTo(UPDATED_TOTAL_COST);
     }
 
     @Test
@@ -1,7 +1,12 @@
 package com.smartiq.pim.web.rest;
 
+import static com.smartiq.pim.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -15,8 +20,11 @@ import com.smartiq.pim.repository.BasketItemRepository;
 import com.smartiq.pim.repository.BasketRepository;
 import com.smartiq.pim.repository.ProductRepository;
 import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.service.ActiveBasketCache;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
@@ -27,6 +35,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +47,16 @@ import org.springframework.transaction.annotation.Transactional;
 @IntegrationTest
 @AutoConfigureMockMvc
 @WithMockUser
+@QueryBudget(value = "GET /api/baskets", statements = 3, entities = 17)
+@QueryBudget(value = "POST /api/baskets", statements = 1)
+@QueryBudget(value = "POST /api/baskets/addItem/{productId}", statements = 7)
+@QueryBudget(value = "GET /api/baskets/createOrGetActiveBasket", statements = 4, entities = 2)
+@QueryBudget(value = "GET /api/baskets/deleteItem/{basketItemId}", statements = 5)
+@QueryBudget(value = "POST /api/baskets/setItemQuantity/{basketItemId}/{quantity}", statements = 5)
+@QueryBudget(value = "GET /api/baskets/{id}", statements = 1, entities = 5)
+@QueryBudget(value = "PUT /api/baskets/{id}", statements = 4)
+@QueryBudget(value = "PATCH /api/baskets/{id}", statements = 3)
+@QueryBudget(value = "DELETE /api/baskets/{id}", statements = 3)
 class BasketResourceIT {
 
     private static final LocalDate DEFAULT_CREATE_DATE = LocalDate.ofEpochDay(0L);
@@ -46,8 +65,8 @@ class BasketResourceIT {
     private static final BasketStatus DEFAULT_STATUS = BasketStatus.ACTIVE;
     private static final BasketStatus UPDATED_STATUS = BasketStatus.EXPIRED;
 
-    private static final Double DEFAULT_TOTAL_COST = 1D;
-    private static final Double UPDATED_TOTAL_COST = 2D;
+    private static final BigDecimal DEFAULT_TOTAL_COST = new BigDecimal(1);
+    private static final BigDecimal UPDATED_TOTAL_COST = new BigDecimal(2);
 
     private static final String ENTITY_API_URL = "/api/baskets";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -67,6 +86,9 @@ class BasketResourceIT {
     @Autowired
     BasketItemRepository basketItemRepository;
 
+    @Autowired
+    private ActiveBasketCache activeBasketCache;
+
     @Autowired
     private EntityManager em;
 
@@ -117,7 +139,7 @@ class BasketResourceIT {
         Basket testBasket = basketList.get(basketList.size() - 1);
         assertThat(testBasket.getCreateDate()).isEqualTo(DEFAULT_CREATE_DATE);
         assertThat(testBasket.getStatus()).isEqualTo(DEFAULT_STATUS);
-        assertThat(testBasket.getTotalCost()).isEqualTo(DEFAULT_TOTAL_COST);
+        assertThat(testBasket.getTotalCost()).isEqualByComparingTo(DEFAULT_TOTAL_COST);
     }
 
     @Test
@@ -203,7 +225,39 @@ class BasketResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(basket.getId().intValue())))
             .andExpect(jsonPath("$.[*].createDate").value(hasItem(DEFAULT_CREATE_DATE.toString())))
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())))
-            .andExpect(jsonPath("$.[*].totalCost").value(hasItem(DEFAULT_TOTAL_COST.doubleValue())));
+            .andExpect(jsonPath("$.[*].totalCost").value(hasItem(sameNumber(DEFAULT_TOTAL_COST))));
+    }
+
+    @Test
+    @Transactional
+    void getBasketsAfterCursor() throws Exception {
+        // Initialize the database
+        basketRepository.saveAndFlush(basket);
+        Basket other = basketRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice
+        restBasketMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(basket.getId() - 1) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(
+                header().string(HttpHeaders.LINK, containsString("after=" + KeysetPagination.encodeCursor(basket.getId()) + "&size=1"))
+            )
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(basket.getId().intValue()));
+
+        // Get the next slice
+        restBasketMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(basket.getId()) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getBasketsAfterInvalidCursor() throws Exception {
+        restBasketMockMvc.perform(get(ENTITY_API_URL + "?after=not-a-cursor")).andExpect(status().isBadRequest());
     }
 
     @Test
@@ -220,7 +274,56 @@ class BasketResourceIT {
             .andExpect(jsonPath("$.id").value(basket.getId().intValue()))
             .andExpect(jsonPath("$.createDate").value(DEFAULT_CREATE_DATE.toString()))
             .andExpect(jsonPath("$.status").value(DEFAULT_STATUS.toString()))
-            .andExpect(jsonPath("$.totalCost").value(DEFAULT_TOTAL_COST.doubleValue()));
+            .andExpect(jsonPath("$.totalCost").value(sameNumber(DEFAULT_TOTAL_COST)));
+    }
+
+    /**
+     * Create baskets with items, and detach them from the persistence context and the second level cache, so that
+     * they are read from the database again.
+     */
+    private List<Basket> createBasketsWithItems(int count) {
+        Product product = productRepository.save(new Product().name("name").price(10.0).stock(100));
+        Product otherProduct = productRepository.save(new Product().name("other").price(20.0).stock(100));
+        List<Basket> baskets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Basket basket = basketRepository.save(createEntity(em));
+            basketItemRepository.save(new BasketItem().quantity(1).totalCost(BigDecimal.TEN).product(product).basket(basket));
+            basketItemRepository.save(new BasketItem().quantity(1).totalCost(BigDecimal.TEN).product(otherProduct).basket(basket));
+            baskets.add(basket);
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        return baskets;
+    }
+
+    @Test
+    @Transactional
+    void getAllBasketsLoadsTheItemsInBatches() throws Exception {
+        createBasketsWithItems(5);
+
+        restBasketMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(5))
+            .andExpect(jsonPath("$.[*].basketItems.length()").value(everyItem(is(2))));
+
+        // The page, its count, and the items of all the baskets of the page with their products
+        assertThat(QueryCountExtension.lastCount().getStatements()).isEqualTo(3);
+    }
+
+    @Test
+    @Transactional
+    void getBasketLoadsItsItemsInTheSameQuery() throws Exception {
+        Basket basket = createBasketsWithItems(1).get(0);
+
+        restBasketMockMvc
+            .perform(get(ENTITY_API_URL_ID, basket.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.basketItems.length()").value(2));
+
+        assertThat(QueryCountExtension.lastCount().getStatements()).isEqualTo(1);
+        assertThat(QueryCountExtension.lastCount().getEntities()).isEqualTo(5);
     }
 
     @Test
@@ -258,7 +361,7 @@ class BasketResourceIT {
         Basket testBasket = basketList.get(basketList.size() - 1);
         assertThat(testBasket.getCreateDate()).isEqualTo(UPDATED_CREATE_DATE);
         assertThat(testBasket.getStatus()).isEqualTo(UPDATED_STATUS);
-        assertThat(testBasket.getTotalCost()).isEqualTo(UPDATED_TOTAL_COST);
+        assertThat(testBasket.getTotalCost()).isEqualByComparingTo(UPDATED_TOTAL_COST);
     }
 
     @Test
@@ -345,7 +448,7 @@ class BasketResourceIT {
         Basket testBasket = basketList.get(basketList.size() - 1);
         assertThat(testBasket.getCreateDate()).isEqualTo(DEFAULT_CREATE_DATE);
         assertThat(testBasket.getStatus()).isEqualTo(UPDATED_STATUS);
-        assertThat(testBasket.getTotalCost()).isEqualTo(UPDATED_TOTAL_COST);
+        assertThat(testBasket.getTotalCost()).isEqualByComparingTo(UPDATED_TOTAL_COST);
     }
 
     @Test
@@ -376,7 +479,7 @@ class BasketResourceIT {
         Basket testBasket = basketList.get(basketList.size() - 1);
         assertThat(testBasket.getCreateDate()).isEqualTo(UPDATED_CREATE_DATE);
         assertThat(testBasket.getStatus()).isEqualTo(UPDATED_STATUS);
-        assertThat(testBasket.getTotalCost()).isEqualTo(UPDATED_TOTAL_COST);
+        assertThat(testBasket.getTotalCost()).isEqualByComparingTo(UPDATED_TOTAL_COST);
     }
 
     @Test
@@ -487,6 +590,32 @@ class BasketResourceIT {
         assertThat(basketList.get(0).getStatus()).isEqualTo(BasketStatus.ACTIVE);
     }
 
+    @Test
+    @Transactional
+    void createOrGetActiveBasketIsCachedUntilItsStatusChanges() throws Exception {
+        User user = userRepository.findOneByLogin("user").get();
+
+        restBasketMockMvc.perform(get(ENTITY_API_URL + "/createOrGetActiveBasket")).andExpect(status().isOk());
+        Long basketId = basketRepository.findAll().get(0).getId();
+        assertThat(activeBasketCache.get(user.getId())).contains(basketId);
+        restBasketMockMvc
+            .perform(get(ENTITY_API_URL + "/createOrGetActiveBasket"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(basketId.intValue()));
+
+        Basket basket = basketRepository.findById(basketId).get();
+        basket.setStatus(BasketStatus.PAID);
+        basketRepository.saveAndFlush(basket);
+        assertThat(activeBasketCache.get(user.getId())).isEmpty();
+
+        restBasketMockMvc
+            .perform(get(ENTITY_API_URL + "/createOrGetActiveBasket"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(not(basketId.intValue())))
+            .andExpect(jsonPath("$.status").value(BasketStatus.ACTIVE.toString()));
+        assertThat(basketRepository.findAll()).hasSize(2);
+    }
+
     @Test
     @Transactional
     void addItem() throws Exception {
@@ -518,6 +647,71 @@ class BasketResourceIT {
         assertThat(basketList.get(0).getBasketItems().size()).isEqualTo(1);
     }
 
+    @Test
+    @Transactional
+    void addItemTwiceIncreasesTheQuantity() throws Exception {
+        Product product = new Product();
+        product.setName("name");
+        product.setPrice(Double.valueOf(100));
+        product.setStock(100);
+        productRepository.save(product);
+
+        restBasketMockMvc.perform(post(ENTITY_API_URL + "/addItem/" + product.getId())).andExpect(status().isOk());
+        restBasketMockMvc
+            .perform(post(ENTITY_API_URL + "/addItem/" + product.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalCost").value(sameNumber(new BigDecimal(200))))
+            .andExpect(jsonPath("$.basketItems.length()").value(1))
+            .andExpect(jsonPath("$.basketItems[0].quantity").value(2));
+
+        List<Basket> basketList = basketRepository.findAll();
+        assertThat(basketList).hasSize(1);
+        assertThat(basketList.get(0).getTotalCost()).isEqualByComparingTo("200");
+        List<BasketItem> basketItemList = basketItemRepository.findAll();
+        assertThat(basketItemList).hasSize(1);
+        assertThat(basketItemList.get(0).getQuantity()).isEqualTo(2);
+        assertThat(basketItemList.get(0).getTotalCost()).isEqualByComparingTo("200");
+    }
+
+    @Test
+    @Transactional
+    void setItemQuantityUpdatesTheTotals() throws Exception {
+        Product product = new Product();
+        product.setName("name");
+        product.setPrice(0.1);
+        product.setStock(100);
+        productRepository.save(product);
+
+        restBasketMockMvc.perform(post(ENTITY_API_URL + "/addItem/" + product.getId())).andExpect(status().isOk());
+        Long basketItemId = basketItemRepository.findAll().get(0).getId();
+
+        restBasketMockMvc
+            .perform(post(ENTITY_API_URL + "/setItemQuantity/" + basketItemId + "/3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalCost").value(sameNumber(new BigDecimal("0.3"))))
+            .andExpect(jsonPath("$.basketItems[0].quantity").value(3));
+        assertThat(basketRepository.findAll().get(0).getTotalCost()).isEqualByComparingTo("0.3");
+
+        restBasketMockMvc
+            .perform(post(ENTITY_API_URL + "/setItemQuantity/" + basketItemId + "/0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalCost").value(sameNumber(BigDecimal.ZERO)))
+            .andExpect(jsonPath("$.basketItems.length()").value(0));
+        assertThat(basketItemRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void setQuantityOfUnknownItem() throws Exception {
+        restBasketMockMvc.perform(post(ENTITY_API_URL + "/setItemQuantity/" + Long.MAX_VALUE + "/2")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void addUnknownItem() throws Exception {
+        restBasketMockMvc.perform(post(ENTITY_API_URL + "/addItem/" + Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void deleteItem() throws Exception {
@@ -547,7 +741,7 @@ class BasketResourceIT {
         basketItem.setProduct(product);
         basketItem.setBasket(basket);
         basketItem.setQuantity(1);
-        basketItem.setTotalCost(basketItem.getProduct().getPrice().intValue());
+        basketItem.setTotalCost(BigDecimal.valueOf(basketItem.getProduct().getPrice()));
         basketItemRepository.save(basketItem);
         basket.getBasketItems().add(basketItem);
         basket.setUser(user);
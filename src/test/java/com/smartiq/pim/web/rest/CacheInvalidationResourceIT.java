@@ -0,0 +1,81 @@
+package com.smartiq.pim.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.domain.User;
+import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
+import com.smartiq.pim.service.invalidation.CacheInvalidation;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link CacheInvalidationResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@QueryBudget(value = "POST /api/cache-invalidations", statements = 0)
+class CacheInvalidationResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/cache-invalidations";
+
+    private static final String LOGIN = "cache-invalidation-resource-user";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc restCacheInvalidationMockMvc;
+
+    private Cache usersByLogin;
+
+    private byte[] body;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        usersByLogin.put(LOGIN, new User());
+        body =
+            TestUtil.convertObjectToJsonBytes(
+                List.of(CacheInvalidation.ofCacheKey("other-instance", UserRepository.USERS_BY_LOGIN_CACHE, LOGIN))
+            );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        usersByLogin.evict(LOGIN);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.CACHE_PEER)
+    void receiveCacheInvalidations() throws Exception {
+        restCacheInvalidationMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isNoContent());
+
+        assertThat(usersByLogin.get(LOGIN)).isNull();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.USER)
+    void receiveCacheInvalidationsIsForbiddenToUsers() throws Exception {
+        restCacheInvalidationMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isForbidden());
+
+        assertThat(usersByLogin.get(LOGIN)).isNotNull();
+    }
+}
@@ -0,0 +1,176 @@
+package com.smartiq.pim.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.domain.Category;
+import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.repository.CategoryRepository;
+import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.service.event.EntityChangedEvent.ChangeType;
+import com.smartiq.pim.service.invalidation.CacheInvalidation;
+import com.smartiq.pim.service.invalidation.CacheInvalidationService;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the query cache of the catalog queries, see {@link ProductRepository}.
+ * <p>
+ * The second level and query caches are disabled for the other tests. Not transactional: the cached results are
+ * invalidated once the writes have committed.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    }
+)
+class CatalogQueryCacheIT {
+
+    private static final String CATEGORIES_URL = "/api/categories?sort=id,desc";
+
+    private static final String PRODUCTS_OF_CATEGORY_URL = "/api/products?categoryId={categoryId}&sort=id,asc";
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc restCatalogMockMvc;
+
+    private Category category;
+
+    @BeforeEach
+    public void initTest() {
+        category = categoryRepository.save(new Category().name("query-cache-category"));
+        productRepository.save(new Product().name("query-cache-first").price(10.0).stock(1).category(category));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productRepository.deleteAll(productRepository.findAllByCategoryId(category.getId(), Pageable.unpaged()).getContent());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void getAllCategoriesIsCachedUntilACategoryIsUpdated() throws Exception {
+        restCatalogMockMvc.perform(get(CATEGORIES_URL)).andExpect(status().isOk());
+        restCatalogMockMvc
+            .perform(get(CATEGORIES_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem("query-cache-category")));
+        assertThat(QueryCountExtension.lastCount().getStatements()).isZero();
+
+        restCatalogMockMvc
+            .perform(
+                put("/api/categories/{id}", category.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new Category().id(category.getId()).name("query-cache-renamed")))
+            )
+            .andExpect(status().isOk());
+
+        restCatalogMockMvc
+            .perform(get(CATEGORIES_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem("query-cache-renamed")));
+        assertThat(QueryCountExtension.lastCount().getStatements()).isPositive();
+    }
+
+    @Test
+    void getProductsOfCategoryIsCachedUntilAProductIsCreated() throws Exception {
+        restCatalogMockMvc.perform(get(PRODUCTS_OF_CATEGORY_URL, category.getId())).andExpect(status().isOk());
+        restCatalogMockMvc
+            .perform(get(PRODUCTS_OF_CATEGORY_URL, category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].name").value("query-cache-first"))
+            .andExpect(jsonPath("$.[0].categoryName").value("query-cache-category"));
+        assertThat(QueryCountExtension.lastCount().getStatements()).isZero();
+
+        restCatalogMockMvc
+            .perform(
+                post("/api/products")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        TestUtil.convertObjectToJsonBytes(new Product().name("query-cache-second").price(20.0).stock(2).category(category))
+                    )
+            )
+            .andExpect(status().isCreated());
+
+        restCatalogMockMvc
+            .perform(get(PRODUCTS_OF_CATEGORY_URL, category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItems("query-cache-first", "query-cache-second")));
+        assertThat(QueryCountExtension.lastCount().getStatements()).isPositive();
+    }
+
+    @Test
+    void getProductsOfCategoryIsNotCachedPastAChangeOnAnotherInstance() throws Exception {
+        restCatalogMockMvc.perform(get(PRODUCTS_OF_CATEGORY_URL, category.getId())).andExpect(status().isOk());
+        restCatalogMockMvc.perform(get(PRODUCTS_OF_CATEGORY_URL, category.getId())).andExpect(status().isOk());
+        assertThat(QueryCountExtension.lastCount().getStatements()).isZero();
+
+        cacheInvalidationService.receive(
+            List.of(CacheInvalidation.ofEntity("other-instance", Product.class.getName(), -1L, ChangeType.INSERT, Set.of()))
+        );
+
+        restCatalogMockMvc.perform(get(PRODUCTS_OF_CATEGORY_URL, category.getId())).andExpect(status().isOk());
+        assertThat(QueryCountExtension.lastCount().getStatements()).isPositive();
+    }
+
+    @Test
+    void getCategoriesIsModifiedAfterAChangeOnAnotherInstance() throws Exception {
+        String eTag = restCatalogMockMvc
+            .perform(get(CATEGORIES_URL))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        restCatalogMockMvc.perform(get(CATEGORIES_URL).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+
+        // The other instance bumps the shared version within its change, then sends the invalidation once committed
+        jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1");
+        cacheInvalidationService.receive(
+            List.of(
+                CacheInvalidation.ofEntity("other-instance", Category.class.getName(), category.getId(), ChangeType.UPDATE, Set.of("name"))
+            )
+        );
+
+        restCatalogMockMvc
+            .perform(get(CATEGORIES_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+}
@@ -2,6 +2,7 @@ package com.smartiq.pim.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,6 +29,12 @@ import org.springframework.transaction.annotation.Transactional;
 @IntegrationTest
 @AutoConfigureMockMvc
 @WithMockUser
+@QueryBudget(value = "GET /api/categories", statements = 1)
+@QueryBudget(value = "POST /api/categories", statements = 1)
+@QueryBudget(value = "GET /api/categories/{id}", statements = 1)
+@QueryBudget(value = "PUT /api/categories/{id}", statements = 3)
+@QueryBudget(value = "PATCH /api/categories/{id}", statements = 3)
+@QueryBudget(value = "DELETE /api/categories/{id}", statements = 2)
 class CategoryResourceIT {
 
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
@@ -157,6 +165,39 @@ class CategoryResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @Transactional
+    void getCategoryNotModified() throws Exception {
+        // Initialize the database
+        categoryRepository.saveAndFlush(category);
+
+        String eTag = restCategoryMockMvc
+            .perform(get(ENTITY_API_URL_ID, category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the category and the list with the same tag
+        restCategoryMockMvc
+            .perform(get(ENTITY_API_URL_ID, category.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        restCategoryMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // Update the category
+        categoryRepository.saveAndFlush(category.name(UPDATED_NAME));
+
+        restCategoryMockMvc
+            .perform(get(ENTITY_API_URL_ID, category.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
     @Test
     @Transactional
     void getNonExistingCategory() throws Exception {
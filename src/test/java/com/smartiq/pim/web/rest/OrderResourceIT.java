@@ -2,10 +2,6 @@ package com.smartiq.pim.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -15,33 +11,42 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartiq.pim.IntegrationTest;
 import com.smartiq.pim.domain.Address;
 import com.smartiq.pim.domain.Basket;
+import com.smartiq.pim.domain.BasketItem;
+import com.smartiq.pim.domain.OmOutboxMessage;
 import com.smartiq.pim.domain.Order;
+import com.smartiq.pim.domain.Product;
 import com.smartiq.pim.domain.User;
 import com.smartiq.pim.domain.enumeration.BasketStatus;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageStatus;
+import com.smartiq.pim.domain.enumeration.OmOutboxMessageType;
 import com.smartiq.pim.domain.enumeration.OrderStatus;
 import com.smartiq.pim.repository.AddressRepository;
+import com.smartiq.pim.repository.BasketItemRepository;
 import com.smartiq.pim.repository.BasketRepository;
+import com.smartiq.pim.repository.OmOutboxMessageRepository;
 import com.smartiq.pim.repository.OrderRepository;
+import com.smartiq.pim.repository.ProductRepository;
 import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.security.AuthoritiesConstants;
 import com.smartiq.pim.security.SecurityUtils;
-import com.smartiq.pim.service.OmIntegrationService;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -53,6 +58,13 @@ import org.springframework.transaction.annotation.Transactional;
 @IntegrationTest
 @AutoConfigureMockMvc
 @WithMockUser
+@QueryBudget(value = "GET /api/admin/orders/export", statements = 1)
+@QueryBudget(value = "GET /api/orders", statements = 1)
+@QueryBudget(value = "POST /api/orders", statements = 5)
+@QueryBudget(value = "GET /api/orders/cancel/{orderId}", statements = 3)
+@QueryBudget(value = "GET /api/orders/updateAddress/{orderId}/{addressId}", statements = 3)
+@QueryBudget(value = "GET /api/orders/{id}", statements = 1)
+@QueryBudget(value = "DELETE /api/orders/{id}", statements = 2)
 class OrderResourceIT {
 
     private static final LocalDate DEFAULT_CREATE_DATE = LocalDate.ofEpochDay(0L);
@@ -79,12 +91,21 @@ class OrderResourceIT {
     @Autowired
     AddressRepository addressRepository;
 
-    @MockBean
-    OmIntegrationService omIntegrationService;
+    @Autowired
+    OmOutboxMessageRepository omOutboxMessageRepository;
+
+    @Autowired
+    BasketItemRepository basketItemRepository;
+
+    @Autowired
+    ProductRepository productRepository;
 
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private MockMvc restOrderMockMvc;
 
@@ -115,9 +136,6 @@ class OrderResourceIT {
     @BeforeEach
     public void initTest() throws IOException {
         order = createEntity(em);
-        MockitoAnnotations.openMocks(this);
-        doNothing().when(omIntegrationService).createOrder(any(Order.class), anyString());
-        doNothing().when(omIntegrationService).cancelOrder(anyLong(), anyString());
     }
 
     @Test
@@ -131,7 +149,7 @@ class OrderResourceIT {
         Basket basket = new Basket();
         basket.setStatus(BasketStatus.ACTIVE);
         basket.setCreateDate(LocalDate.now());
-        basket.setTotalCost(Double.valueOf(100));
+        basket.setTotalCost(new BigDecimal(100));
         basket.setUser(user);
         basketRepository.save(basket);
         order.setBasket(basket);
@@ -157,6 +175,15 @@ class OrderResourceIT {
         assertThat(testOrder.getBasket().getId()).isEqualTo(basket.getId());
         assertThat(testOrder.getAddress().getId()).isEqualTo(address.getId());
         assertThat(testOrder.getUser().getLogin()).isEqualTo(user.getLogin());
+
+        // Validate the call to the Order Management service is recorded in the outbox
+        List<OmOutboxMessage> messages = omOutboxMessageRepository.findAll();
+        OmOutboxMessage message = messages.get(messages.size() - 1);
+        assertThat(message.getType()).isEqualTo(OmOutboxMessageType.CREATE_ORDER);
+        assertThat(message.getOrderId()).isEqualTo(testOrder.getId());
+        assertThat(message.getUserLogin()).isEqualTo(user.getLogin());
+        assertThat(message.getStatus()).isEqualTo(OmOutboxMessageStatus.PENDING);
+        assertThat(message.getPayload()).contains("\"city\":\"city\"");
     }
 
     @Test
@@ -227,6 +254,53 @@ class OrderResourceIT {
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
 
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void exportOrders() throws Exception {
+        // Initialize the database
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Product product = productRepository.save(new Product().name("name").price(10.0).stock(100));
+        orderRepository.saveAndFlush(order.user(user).basket(createBasketWithItem(user, product)));
+        Order other = orderRepository.saveAndFlush(createEntity(em).user(user).basket(createBasketWithItem(user, product)));
+
+        String export = restOrderMockMvc
+            .perform(get("/api/admin/orders/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            JsonNode exported = objectMapper.readTree(line);
+            exportedIds.add(exported.get("id").asLong());
+            if (exported.get("id").asLong() == order.getId()) {
+                assertThat(exported.get("userLogin").asText()).isEqualTo("user");
+                assertThat(exported.get("basketId").asLong()).isEqualTo(order.getBasket().getId());
+            }
+        }
+        assertThat(exportedIds).containsSubsequence(order.getId(), other.getId());
+        // Neither the baskets nor their items are loaded, whatever the number of orders
+        assertThat(QueryCountExtension.lastCount().getStatements()).isEqualTo(1);
+        assertThat(QueryCountExtension.lastCount().getEntities()).isZero();
+    }
+
+    private Basket createBasketWithItem(User user, Product product) {
+        Basket basket = basketRepository.save(
+            new Basket().createDate(LocalDate.now()).status(BasketStatus.ACTIVE).totalCost(BigDecimal.TEN).user(user)
+        );
+        basketItemRepository.save(new BasketItem().quantity(1).totalCost(BigDecimal.TEN).product(product).basket(basket));
+        return basket;
+    }
+
+    @Test
+    @Transactional
+    void exportOrdersIsForbiddenForUsers() throws Exception {
+        restOrderMockMvc.perform(get("/api/admin/orders/export")).andExpect(status().isForbidden());
+    }
+
     @Test
     @Transactional
     void getOrder() throws Exception {
@@ -318,6 +392,9 @@ class OrderResourceIT {
         List<Order> orderList = orderRepository.findAll();
 
         assertThat(orderList.get(0).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        List<OmOutboxMessage> messages = omOutboxMessageRepository.findAll();
+        assertThat(messages.get(messages.size() - 1).getType()).isEqualTo(OmOutboxMessageType.CANCEL_ORDER);
+        assertThat(messages.get(messages.size() - 1).getOrderId()).isEqualTo(order.getId());
     }
 
     @Test
@@ -1,13 +1,20 @@
 package com.smartiq.pim.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.domain.Category;
 import com.smartiq.pim.domain.Product;
+import com.smartiq.pim.domain.ProductPhoto;
+import com.smartiq.pim.repository.ProductPhotoRepository;
 import com.smartiq.pim.repository.ProductRepository;
+import com.smartiq.pim.service.CatalogVersion;
+import java.time.Instant;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,11 +23,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 
 /**
  * Integration tests for the {@link ProductResource} REST controller.
@@ -28,6 +36,13 @@ import org.springframework.util.Base64Utils;
 @IntegrationTest
 @AutoConfigureMockMvc
 @WithMockUser
+@QueryBudget(value = "GET /api/products", statements = 2)
+@QueryBudget(value = "POST /api/products", statements = 3)
+@QueryBudget(value = "GET /api/products/{id}", statements = 1)
+@QueryBudget(value = "PUT /api/products/{id}", statements = 5)
+@QueryBudget(value = "PATCH /api/products/{id}", statements = 5)
+@QueryBudget(value = "DELETE /api/products/{id}", statements = 3)
+@QueryBudget(value = "GET /api/products/{id}/photo", statements = 1)
 class ProductResourceIT {
 
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
@@ -49,6 +64,7 @@ class ProductResourceIT {
 
     private static final String ENTITY_API_URL = "/api/products";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_PHOTO = ENTITY_API_URL_ID + "/photo";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -56,6 +72,12 @@ class ProductResourceIT {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductPhotoRepository productPhotoRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     @Autowired
     private EntityManager em;
 
@@ -98,6 +120,21 @@ class ProductResourceIT {
         return product;
     }
 
+    /**
+     * Move the photo of an already saved product to the photo store, as the product resource does.
+     */
+    private ProductPhoto savePhoto(Product product) {
+        product.setPhoto(null);
+        return productPhotoRepository.saveAndFlush(
+            new ProductPhoto()
+                .productId(product.getId())
+                .data(DEFAULT_PHOTO)
+                .contentType(DEFAULT_PHOTO_CONTENT_TYPE)
+                .dataSize((long) DEFAULT_PHOTO.length)
+                .lastModifiedDate(Instant.now())
+        );
+    }
+
     @BeforeEach
     public void initTest() {
         product = createEntity(em);
@@ -120,8 +157,11 @@ class ProductResourceIT {
         assertThat(testProduct.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
         assertThat(testProduct.getPrice()).isEqualTo(DEFAULT_PRICE);
         assertThat(testProduct.getStock()).isEqualTo(DEFAULT_STOCK);
-        assertThat(testProduct.getPhoto()).isEqualTo(DEFAULT_PHOTO);
         assertThat(testProduct.getPhotoContentType()).isEqualTo(DEFAULT_PHOTO_CONTENT_TYPE);
+        ProductPhoto testProductPhoto = productPhotoRepository.findById(testProduct.getId()).get();
+        assertThat(testProductPhoto.getData()).isEqualTo(DEFAULT_PHOTO);
+        assertThat(testProductPhoto.getContentType()).isEqualTo(DEFAULT_PHOTO_CONTENT_TYPE);
+        assertThat(testProductPhoto.getDataSize()).isEqualTo(DEFAULT_PHOTO.length);
     }
 
     @Test
@@ -210,7 +250,149 @@ class ProductResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())))
             .andExpect(jsonPath("$.[*].stock").value(hasItem(DEFAULT_STOCK)))
             .andExpect(jsonPath("$.[*].photoContentType").value(hasItem(DEFAULT_PHOTO_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].photo").value(hasItem(Base64Utils.encodeToString(DEFAULT_PHOTO))));
+            .andExpect(jsonPath("$.[*].photoUrl").value(hasItem("/api/products/" + product.getId() + "/photo")))
+            .andExpect(jsonPath("$.[*].photo").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllProductsBuildsTheLinksOfEachRequest() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+
+        // Fill the catalog page cache with a request carrying an extra parameter
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&page=0&extra=first-caller"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, containsString("extra=first-caller")));
+
+        // The cached page does not replay the parameters of the first request
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&page=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(product.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("extra"))))
+            .andExpect(header().exists("X-Total-Count"));
+    }
+
+    @Test
+    @Transactional
+    void getAllProductsIsRefreshedAfterUpdateAndDelete() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+
+        // Fill the catalog page cache
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].stock").value(hasItem(DEFAULT_STOCK)));
+
+        // Update the product
+        Product partialUpdatedProduct = new Product();
+        partialUpdatedProduct.setId(product.getId());
+        partialUpdatedProduct.stock(UPDATED_STOCK);
+        restProductMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, product.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedProduct))
+            )
+            .andExpect(status().isOk());
+        // Flush the update as the commit of the request would
+        em.flush();
+
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == " + product.getId() + ")].stock").value(UPDATED_STOCK));
+
+        // Delete the product
+        restProductMockMvc.perform(delete(ENTITY_API_URL_ID, product.getId())).andExpect(status().isNoContent());
+        em.flush();
+
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(product.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getProductsAfterCursor() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        Product other = productRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(product.getId() - 1) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(
+                header().string(HttpHeaders.LINK, containsString("after=" + KeysetPagination.encodeCursor(product.getId()) + "&size=1"))
+            )
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(product.getId().intValue()));
+
+        // Get the next slice
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(product.getId()) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getProductsAfterCursorWithView() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+
+        // The summaries are not paginated by cursor
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPagination.encodeCursor(product.getId() - 1) + "&view=summary"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getProductsOfCategoryWithCursorOrView() throws Exception {
+        // Initialize the database
+        Category category = CategoryResourceIT.createEntity(em);
+        em.persist(category);
+        productRepository.saveAndFlush(product.category(category));
+
+        // The products of a category are neither paginated by cursor nor summarized
+        restProductMockMvc
+            .perform(
+                get(ENTITY_API_URL + "?categoryId=" + category.getId() + "&after=" + KeysetPagination.encodeCursor(product.getId() - 1))
+            )
+            .andExpect(status().isBadRequest());
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?categoryId=" + category.getId() + "&view=summary"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllProductSummaries() throws Exception {
+        // Initialize the database
+        Category category = CategoryResourceIT.createEntity(em);
+        em.persist(category);
+        productRepository.saveAndFlush(product.category(category));
+
+        // Get all the product summaries
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(product.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())))
+            .andExpect(jsonPath("$.[*].stock").value(hasItem(DEFAULT_STOCK)))
+            .andExpect(jsonPath("$.[*].categoryName").value(hasItem(category.getName())))
+            .andExpect(jsonPath("$.[*].description").doesNotExist());
     }
 
     @Test
@@ -218,6 +400,7 @@ class ProductResourceIT {
     void getProduct() throws Exception {
         // Initialize the database
         productRepository.saveAndFlush(product);
+        savePhoto(product);
 
         // Get the product
         restProductMockMvc
@@ -230,7 +413,104 @@ class ProductResourceIT {
             .andExpect(jsonPath("$.price").value(DEFAULT_PRICE.doubleValue()))
             .andExpect(jsonPath("$.stock").value(DEFAULT_STOCK))
             .andExpect(jsonPath("$.photoContentType").value(DEFAULT_PHOTO_CONTENT_TYPE))
-            .andExpect(jsonPath("$.photo").value(Base64Utils.encodeToString(DEFAULT_PHOTO)));
+            .andExpect(jsonPath("$.photo").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getProductNotModified() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+
+        String eTag = restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the list, the summaries and the product with the same tag
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "?view=summary").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL_ID, product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // The tag is read from the database, as by any other instance
+        catalogVersion.refresh();
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL_ID, product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // Update the product
+        productRepository.saveAndFlush(product.stock(UPDATED_STOCK));
+
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL_ID, product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.stock").value(UPDATED_STOCK));
+    }
+
+    @Test
+    @Transactional
+    void getProductPhoto() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        savePhoto(product);
+
+        // Get the photo
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL_PHOTO, product.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_PHOTO_CONTENT_TYPE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + product.getId() + "-0\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, DEFAULT_PHOTO.length))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("private")))
+            .andExpect(content().bytes(DEFAULT_PHOTO));
+    }
+
+    @Test
+    @Transactional
+    @WithAnonymousUser
+    void getProductPhotoRequiresAuthentication() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        savePhoto(product);
+
+        // Get the photo without credentials
+        restProductMockMvc.perform(get(ENTITY_API_URL_PHOTO, product.getId())).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void getProductPhotoNotModified() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        savePhoto(product);
+
+        // Get the photo again with the ETag of the current version
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL_PHOTO, product.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + product.getId() + "-0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingProductPhoto() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+
+        // Get the photo of a product which has none
+        restProductMockMvc.perform(get(ENTITY_API_URL_PHOTO, product.getId())).andExpect(status().isNotFound());
     }
 
     @Test
@@ -276,8 +556,8 @@ class ProductResourceIT {
         assertThat(testProduct.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
         assertThat(testProduct.getPrice()).isEqualTo(UPDATED_PRICE);
         assertThat(testProduct.getStock()).isEqualTo(UPDATED_STOCK);
-        assertThat(testProduct.getPhoto()).isEqualTo(UPDATED_PHOTO);
         assertThat(testProduct.getPhotoContentType()).isEqualTo(UPDATED_PHOTO_CONTENT_TYPE);
+        assertThat(productPhotoRepository.findById(testProduct.getId()).get().getData()).isEqualTo(UPDATED_PHOTO);
     }
 
     @Test
@@ -366,8 +646,8 @@ class ProductResourceIT {
         assertThat(testProduct.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
         assertThat(testProduct.getPrice()).isEqualTo(DEFAULT_PRICE);
         assertThat(testProduct.getStock()).isEqualTo(DEFAULT_STOCK);
-        assertThat(testProduct.getPhoto()).isEqualTo(UPDATED_PHOTO);
         assertThat(testProduct.getPhotoContentType()).isEqualTo(UPDATED_PHOTO_CONTENT_TYPE);
+        assertThat(productPhotoRepository.findById(testProduct.getId()).get().getData()).isEqualTo(UPDATED_PHOTO);
     }
 
     @Test
@@ -406,8 +686,8 @@ class ProductResourceIT {
         assertThat(testProduct.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
         assertThat(testProduct.getPrice()).isEqualTo(UPDATED_PRICE);
         assertThat(testProduct.getStock()).isEqualTo(UPDATED_STOCK);
-        assertThat(testProduct.getPhoto()).isEqualTo(UPDATED_PHOTO);
         assertThat(testProduct.getPhotoContentType()).isEqualTo(UPDATED_PHOTO_CONTENT_TYPE);
+        assertThat(productPhotoRepository.findById(testProduct.getId()).get().getData()).isEqualTo(UPDATED_PHOTO);
     }
 
     @Test
@@ -471,6 +751,7 @@ class ProductResourceIT {
     void deleteProduct() throws Exception {
         // Initialize the database
         productRepository.saveAndFlush(product);
+        savePhoto(product);
 
         int databaseSizeBeforeDelete = productRepository.findAll().size();
 
@@ -482,5 +763,6 @@ class ProductResourceIT {
         // Validate the database contains one less item
         List<Product> productList = productRepository.findAll();
         assertThat(productList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(productPhotoRepository.existsById(product.getId())).isFalse();
     }
 }
@@ -26,6 +26,8 @@ import org.springframework.transaction.annotation.Transactional;
 @AutoConfigureMockMvc
 @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
 @IntegrationTest
+@QueryBudget(value = "GET /api/authorities", statements = 1)
+@QueryBudget(value = "GET /api/users", statements = 1, entities = 3)
 class PublicUserResourceIT {
 
     private static final String DEFAULT_LOGIN = "johndoe";
@@ -0,0 +1,44 @@
+package com.smartiq.pim.web.rest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements, and entities loaded from their results, that a call to a REST endpoint may cost in the tests
+ * of a class.
+ * <p>
+ * Every call made through {@code MockMvc} by an {@link com.smartiq.pim.IntegrationTest} is measured by the
+ * {@link QueryCountFilter}, and fails when it exceeds the budget of its endpoint.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(QueryBudget.List.class)
+public @interface QueryBudget {
+    /**
+     * The endpoint, as its HTTP method and its request mapping pattern: {@code "GET /api/baskets/{id}"}.
+     */
+    String value();
+
+    /**
+     * Most prepared statements.
+     */
+    long statements();
+
+    /**
+     * Most entities loaded from the database, not from the persistence context nor the second level cache, or
+     * {@code -1} to leave it unchecked.
+     */
+    long entities() default -1;
+
+    @Documented
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+        QueryBudget[] value();
+    }
+}
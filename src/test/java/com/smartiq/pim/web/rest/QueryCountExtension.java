@@ -0,0 +1,89 @@
+package com.smartiq.pim.web.rest;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Makes the {@link QueryBudget}s of a test class, and the cost of its last REST call, available to the
+ * {@link QueryCountFilter} of the thread running the test.
+ */
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ThreadLocal<Map<String, QueryBudget>> BUDGETS = ThreadLocal.withInitial(Map::of);
+
+    private static final ThreadLocal<QueryCount> LAST_COUNT = new ThreadLocal<>();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        BUDGETS.set(
+            AnnotationSupport
+                .findRepeatableAnnotations(context.getRequiredTestClass(), QueryBudget.class)
+                .stream()
+                .collect(Collectors.toMap(QueryBudget::value, Function.identity()))
+        );
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        BUDGETS.remove();
+        LAST_COUNT.remove();
+    }
+
+    static Optional<QueryBudget> budgetOf(String endpoint) {
+        return Optional.ofNullable(BUDGETS.get().get(endpoint));
+    }
+
+    static void setLastCount(QueryCount count) {
+        LAST_COUNT.set(count);
+    }
+
+    /**
+     * Get the cost of the last REST call of the current test.
+     *
+     * @return the cost of the call.
+     */
+    public static QueryCount lastCount() {
+        return Optional.ofNullable(LAST_COUNT.get()).orElseThrow(() -> new IllegalStateException("No REST call was made"));
+    }
+
+    /**
+     * Cost of a REST call.
+     */
+    public static class QueryCount {
+
+        private final String endpoint;
+
+        private final long statements;
+
+        private final long entities;
+
+        QueryCount(String endpoint, long statements, long entities) {
+            this.endpoint = endpoint;
+            this.statements = statements;
+            this.entities = entities;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getEntities() {
+            return entities;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + ": " + statements + " statements, " + entities + " entities";
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartiq.pim.web.rest;
+
+import java.io.IOException;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the SQL statements and the entities loaded by each REST call, with the Hibernate statistics, and fails the
+ * calls exceeding the {@link QueryBudget} of their endpoint.
+ * <p>
+ * In a transactional test, the call shares the persistence context of the test: the pending writes of the test are
+ * flushed and the context is cleared before the call, so that the call loads what it reads, and the writes of the call
+ * are flushed before the end of the count, so that they are counted.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Statistics statistics;
+
+    public QueryCountFilter(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            filterChain.doFilter(request, response);
+            if (entityManager != null && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+                entityManager.flush();
+            }
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        QueryCountExtension.QueryCount count = new QueryCountExtension.QueryCount(
+            request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+            statistics.getPrepareStatementCount(),
+            statistics.getEntityLoadCount()
+        );
+        log.debug("{}", count);
+        QueryCountExtension.setLastCount(count);
+        QueryCountExtension
+            .budgetOf(count.getEndpoint())
+            .ifPresent(budget -> {
+                if (count.getStatements() > budget.statements() || (budget.entities() >= 0 && count.getEntities() > budget.entities())) {
+                    throw new AssertionError(
+                        "Query budget exceeded by " +
+                        count +
+                        ", budget: " +
+                        budget.statements() +
+                        " statements, " +
+                        budget.entities() +
+                        " entities"
+                    );
+                }
+            });
+    }
+}
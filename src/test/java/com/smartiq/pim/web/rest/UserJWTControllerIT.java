@@ -1,5 +1,6 @@
 package com.smartiq.pim.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -10,15 +11,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.smartiq.pim.IntegrationTest;
+import com.smartiq.pim.config.ApplicationProperties;
 import com.smartiq.pim.domain.User;
 import com.smartiq.pim.repository.UserRepository;
+import com.smartiq.pim.web.rest.errors.ErrorConstants;
 import com.smartiq.pim.web.rest.vm.LoginVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -26,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @AutoConfigureMockMvc
 @IntegrationTest
+@QueryBudget(value = "POST /api/authenticate/refresh", statements = 3)
 class UserJWTControllerIT {
 
     @Autowired
@@ -34,6 +40,9 @@ class UserJWTControllerIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -95,4 +104,119 @@ class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    @Transactional
+    void testAuthorizeUpgradesWeakPasswordHashes() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-weak-hash");
+        user.setEmail("user-jwt-controller-weak-hash@example.com");
+        user.setActivated(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-weak-hash");
+        login.setPassword("test");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk());
+
+        String password = userRepository.findOneByLogin("user-jwt-controller-weak-hash").orElseThrow().getPassword();
+        assertThat(password).startsWith("$2a$" + applicationProperties.getLogin().getBcryptStrength() + "$");
+        assertThat(passwordEncoder.matches("test", password)).isTrue();
+    }
+
+    @Test
+    void testAuthorizeIsLimitedPerLogin() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-limited");
+        login.setPassword("wrong password");
+        for (int i = 0; i < applicationProperties.getLogin().getAttemptsPerLogin(); i++) {
+            mockMvc
+                .perform(
+                    post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login))
+                )
+                .andExpect(status().isUnauthorized());
+        }
+
+        login.setUsername("User-JWT-Controller-Limited");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_TOO_MANY_ATTEMPTS))
+            .andExpect(header().doesNotExist("Authorization"));
+    }
+
+    @Test
+    @Transactional
+    void testRefreshRotatesTheRefreshToken() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-refresh");
+
+        String rotatedRefreshToken = refresh(refreshToken)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").value(not(refreshToken)))
+            .andExpect(header().string("Authorization", not(nullValue())))
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .replaceAll(".*\"refresh_token\":\"([^\"]+)\".*", "$1");
+
+        // The first token was exchanged, presenting it again revokes all the tokens of the user
+        refresh(refreshToken).andExpect(status().isUnauthorized()).andExpect(jsonPath("$.id_token").doesNotExist());
+        refresh(rotatedRefreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testRevokedRefreshTokenCannotBeRefreshed() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-revoke");
+
+        mockMvc
+            .perform(
+                post("/api/authenticate/revoke")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"refresh_token\":\"" + refreshToken + "\"}")
+            )
+            .andExpect(status().isNoContent());
+
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRefreshFailsWithUnknownToken() throws Exception {
+        refresh("unknown").andExpect(status().isUnauthorized()).andExpect(header().doesNotExist("Authorization"));
+    }
+
+    private String authenticate(String username) throws Exception {
+        User user = new User();
+        user.setLogin(username);
+        user.setEmail(username + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("test");
+        return mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .replaceAll(".*\"refresh_token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(
+            post("/api/authenticate/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refresh_token\":\"" + refreshToken + "\"}")
+        );
+    }
 }
@@ -36,6 +36,11 @@ import org.springframework.transaction.annotation.Transactional;
 @AutoConfigureMockMvc
 @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
 @IntegrationTest
+@QueryBudget(value = "GET /api/admin/users", statements = 2, entities = 5)
+@QueryBudget(value = "POST /api/admin/users", statements = 5)
+@QueryBudget(value = "PUT /api/admin/users", statements = 7)
+@QueryBudget(value = "GET /api/admin/users/{login}", statements = 1)
+@QueryBudget(value = "DELETE /api/admin/users/{login}", statements = 4)
 class UserResourceIT {
 
     private static final String DEFAULT_LOGIN = "johndoe";